@@ -1,6 +1,10 @@
 package com.restaurant;
 
 import com.restaurant.cli.MainCLI;
+import com.restaurant.config.DatabaseConnection;
+import com.restaurant.config.MigrationRunner;
+import com.restaurant.util.MemoryResyncer;
+import com.restaurant.util.NoShowSweeper;
 
 /**
  * Main entry point for the Restaurant Management System
@@ -8,7 +12,15 @@ import com.restaurant.cli.MainCLI;
  */
 public class Main {
     public static void main(String[] args) {
+        MigrationRunner.migrate();
+        MemoryResyncer.getInstance().start();
+        NoShowSweeper.getInstance().start();
+
         MainCLI mainCommandLineInterface = new MainCLI();
         mainCommandLineInterface.start();
+
+        NoShowSweeper.getInstance().stop();
+        MemoryResyncer.getInstance().stop();
+        DatabaseConnection.shutdown();
     }
 }
\ No newline at end of file
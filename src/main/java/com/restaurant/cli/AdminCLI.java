@@ -2,6 +2,7 @@ package com.restaurant.cli;
 
 import com.restaurant.model.Admin;
 import com.restaurant.service.AdminService;
+import com.restaurant.util.Money;
 
 /**
  * Administrator interface for complete system management including menu operations
@@ -67,10 +68,10 @@ public class AdminCLI extends BaseCLI {
 
         for (var menuItem : menuItems) {
             String availabilityStatus = menuItem.isAvailable() ? "Available" : "Unavailable";
-            System.out.printf("%-8d %-30s Rs %-11.2f %-12s%n",
+            System.out.printf("%-8d %-30s Rs %-11s %-12s%n",
                     menuItem.getMenuId(),
                     menuItem.getItemName(),
-                    menuItem.getPrice(),
+                    Money.format(menuItem.getPricePaise()),
                     availabilityStatus);
         }
 
@@ -82,9 +83,9 @@ public class AdminCLI extends BaseCLI {
         printSubHeader("Add New Menu Item");
 
         String itemName = getInput("Enter dish name: ");
-        double itemPrice = getDoubleInput("Enter price (Rs): ");
+        long itemPricePaise = getMoneyInput("Enter price (Rs): ");
 
-        adminService.addMenuDish(itemName, itemPrice);
+        adminService.addMenuDish(itemName, itemPricePaise);
         printSuccess("New dish '" + itemName + "' added to menu successfully!");
         waitForEnter();
     }
@@ -97,9 +98,9 @@ public class AdminCLI extends BaseCLI {
         viewAllMenuItems();
 
         int menuId = getChoice("Enter Menu ID to update: ");
-        double newPrice = getDoubleInput("Enter new price (Rs): ");
+        long newPricePaise = getMoneyInput("Enter new price (Rs): ");
 
-        adminService.changeDishPrice(menuId, newPrice);
+        adminService.changeDishPrice(menuId, newPricePaise);
         printSuccess("Menu item price updated successfully!");
         waitForEnter();
     }
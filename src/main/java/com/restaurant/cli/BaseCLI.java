@@ -1,6 +1,9 @@
 package com.restaurant.cli;
 
+import com.restaurant.util.Money;
+
 import java.util.Scanner;
+import java.util.UUID;
 
 /**
  * Base class for all CLI components providing common utilities and styling
@@ -55,9 +58,30 @@ public abstract class BaseCLI {
         return inputScanner.next();
     }
 
-    protected double getDoubleInput(String prompt) {
-        System.out.print(MENU_POINTER + prompt);
-        return inputScanner.nextDouble();
+    /**
+     * amount in rupees typed like 120 or 120.50, returned as paise. asks again until it reads one.
+     */
+    protected long getMoneyInput(String prompt) {
+        while (true) {
+            String amount = getInput(prompt);
+            try {
+                return Money.parse(amount);
+            } catch (NumberFormatException exception) {
+                printError("Enter an amount like 120 or 120.50.");
+            }
+        }
+    }
+
+    /**
+     * new idempotency key for one submission. retries of that submission reuse it,
+     * so the server can tell a retry from a second order, bill or payment.
+     */
+    protected String newIdempotencyKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    protected boolean askToRetry() {
+        return getInput("Try again? (y/n): ").equalsIgnoreCase("y");
     }
 
     protected void waitForEnter() {
@@ -47,7 +47,7 @@ public class ChefCLI extends BaseCLI {
     private void viewPendingOrders() {
         printSubHeader("Pending Kitchen Orders");
 
-        var pendingOrders = chefService.getPendingOrders();
+        var pendingOrders = chefService.getPendingOrdersWithItems();
         if (pendingOrders.isEmpty()) {
             printInfo("Kitchen is all caught up! No pending orders at the moment.");
             waitForEnter();
@@ -63,7 +63,7 @@ public class ChefCLI extends BaseCLI {
                     order.getCustomerId(),
                     order.getTableId());
 
-            var orderItems = chefService.getItemsForOrder(order.getOrderId());
+            var orderItems = order.getItems();
             if (orderItems.isEmpty()) {
                 System.out.println(String.format("%33s No items to prepare", ""));
             } else {
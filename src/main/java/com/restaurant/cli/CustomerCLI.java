@@ -2,37 +2,58 @@ package com.restaurant.cli;
 
 import com.restaurant.exceptions.BookingException;
 import com.restaurant.exceptions.OrderException;
+import com.restaurant.model.Bill;
 import com.restaurant.model.Customer;
+import com.restaurant.model.OrderLine;
+import com.restaurant.model.Reservation;
 import com.restaurant.service.AdminService;
 import com.restaurant.service.CustomerService;
+import com.restaurant.service.ReservationService;
+import com.restaurant.util.Money;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Customer interface for dining operations
  * Handles table booking, ordering, check-in, and billing
  */
 public class CustomerCLI extends BaseCLI {
+    private static final DateTimeFormatter SLOT_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     private final CustomerService customerService;
+    private final ReservationService reservationService;
 
     public CustomerCLI() {
         this.customerService = new CustomerService();
+        this.reservationService = new ReservationService();
     }
 
     public void showCustomerMenu(Customer customer) {
         boolean shouldStayInMenu = true;
         while (shouldStayInMenu) {
             printCustomerMenu(customer);
-            int userChoice = getChoice("Select your option (1-5): ");
+            int userChoice = getChoice("Select your option (1-7): ");
 
             switch (userChoice) {
                 case 1 -> handleTableBooking(customer);
                 case 2 -> handleCheckIn(customer);
                 case 3 -> handleOrderCreation(customer);
                 case 4 -> handleBillGeneration(customer);
-                case 5 -> {
+                case 5 -> handleFutureReservation(customer);
+                case 6 -> handleMyReservations(customer);
+                case 7 -> {
                     printInfo("Thank you for dining with us, " + customer.getName() + "!");
                     shouldStayInMenu = false;
                 }
-                default -> printError("Invalid choice! Please select a number between 1-5.");
+                default -> printError("Invalid choice! Please select a number between 1-7.");
             }
         }
     }
@@ -51,7 +72,13 @@ public class CustomerCLI extends BaseCLI {
         System.out.println("4. Generate Bill");
         System.out.println("   Get your final bill for payment");
         System.out.println();
-        System.out.println("5. Logout");
+        System.out.println("5. Reserve For Later");
+        System.out.println("   Book a table for a date and time ahead");
+        System.out.println();
+        System.out.println("6. My Reservations");
+        System.out.println("   See or cancel your upcoming reservations");
+        System.out.println();
+        System.out.println("7. Logout");
         System.out.println("   Sign out from your account");
         System.out.println(DIVIDER);
     }
@@ -69,6 +96,61 @@ public class CustomerCLI extends BaseCLI {
         waitForEnter();
     }
 
+    private void handleFutureReservation(Customer customer) {
+        printSubHeader("Reserve Table For Later");
+        int partySize = getChoice("Number of guests (including yourself): ");
+        String date = getInput("Date (YYYY-MM-DD): ");
+        String time = getInput("Time (HH:MM): ");
+        int durationMinutes = getChoice("How long will you stay (minutes): ");
+
+        try {
+            // the guest types the time on the restaurant's clock, the app's time zone
+            Instant startsAt = LocalDateTime.of(LocalDate.parse(date), LocalTime.parse(time))
+                    .atZone(ZoneId.systemDefault()).toInstant();
+            Reservation reservation = reservationService.reserveTable(customer, partySize, startsAt, durationMinutes);
+            printSuccess("Reservation #" + reservation.getReservationId() + ": table " + reservation.getTableId() +
+                    " from " + showSlotTime(reservation.getStartsAt()) + " to " + showSlotTime(reservation.getEndsAt()) + ".");
+        } catch (DateTimeParseException parseException) {
+            printError("Date or time is not in the right format.");
+        } catch (BookingException bookingException) {
+            printWarning(bookingException.getMessage());
+        }
+        waitForEnter();
+    }
+
+    private void handleMyReservations(Customer customer) {
+        printSubHeader("My Reservations");
+        List<Reservation> reservations = reservationService.getUpcomingReservations(customer);
+        if (reservations.isEmpty()) {
+            printInfo("You have no upcoming reservations.");
+            waitForEnter();
+            return;
+        }
+
+        System.out.printf("%-6s %-7s %-7s %-18s %-18s%n", "ID", "Table", "Guests", "From", "To");
+        System.out.println(SUB_DIVIDER);
+        for (Reservation reservation : reservations) {
+            System.out.printf("%-6d %-7d %-7d %-18s %-18s%n",
+                    reservation.getReservationId(),
+                    reservation.getTableId(),
+                    reservation.getPartySize(),
+                    showSlotTime(reservation.getStartsAt()),
+                    showSlotTime(reservation.getEndsAt()));
+        }
+        System.out.println();
+
+        int reservationId = getChoice("Enter reservation ID to cancel (0 to keep all): ");
+        if (reservationId != 0) {
+            try {
+                reservationService.cancelReservation(customer, reservationId);
+                printSuccess("Reservation #" + reservationId + " cancelled.");
+            } catch (BookingException bookingException) {
+                printWarning(bookingException.getMessage());
+            }
+        }
+        waitForEnter();
+    }
+
     private void handleCheckIn(Customer customer) {
         printSubHeader("Check-In Service");
         try {
@@ -82,21 +164,40 @@ public class CustomerCLI extends BaseCLI {
 
     private void handleOrderCreation(Customer customer) {
         printSubHeader("Food Ordering Service");
-        try {
-            int orderId = customerService.createOrder(customer);
-            printSuccess("Order #" + orderId + " created! A waiter has been assigned to assist you.");
 
-            // Display menu
-            displayAvailableMenu();
+        // Display menu
+        displayAvailableMenu();
 
-            int menuId = getChoice("Enter Menu ID of the item you want: ");
+        List<OrderLine> cart = new ArrayList<>();
+        while (true) {
+            int menuId = getChoice("Enter Menu ID of the item you want (0 to finish): ");
+            if (menuId == 0) {
+                break;
+            }
             int quantity = getChoice("Enter quantity: ");
+            cart.add(new OrderLine(menuId, quantity));
+            printInfo(cart.size() + " item(s) in your cart.");
+        }
 
-            customerService.addItemToOrder(orderId, menuId, quantity);
-            printSuccess("Item added to your order successfully!");
+        if (cart.isEmpty()) {
+            printInfo("Nothing ordered.");
+            waitForEnter();
+            return;
+        }
 
-        } catch (OrderException orderException) {
-            printWarning(orderException.getMessage());
+        String idempotencyKey = newIdempotencyKey();
+        while (true) {
+            try {
+                int orderId = customerService.placeOrder(customer, cart, idempotencyKey);
+                printSuccess("Order #" + orderId + " placed with " + cart.size() + " item(s)! A waiter has been assigned to assist you.");
+                printInfo("Your total so far: Rs " + Money.format(customerService.getCurrentTotal(customer)));
+                break;
+            } catch (OrderException orderException) {
+                printWarning(orderException.getMessage());
+                if (!askToRetry()) {
+                    break;
+                }
+            }
         }
         waitForEnter();
     }
@@ -116,10 +217,10 @@ public class CustomerCLI extends BaseCLI {
 
         for (var menuItem : menuItems) {
             if (menuItem.isAvailable()) {
-                System.out.printf("%-5d %-30s Rs %-10.2f%n",
+                System.out.printf("%-5d %-30s Rs %-10s%n",
                         menuItem.getMenuId(),
                         menuItem.getItemName(),
-                        menuItem.getPrice());
+                        Money.format(menuItem.getPricePaise()));
             }
         }
         System.out.println();
@@ -127,24 +228,26 @@ public class CustomerCLI extends BaseCLI {
 
     private void handleBillGeneration(Customer customer) {
         printSubHeader("Bill Generation Service");
-        int billId = customerService.generateCombinedBill(customer);
-
-        if (billId > 0) {
-            printSuccess("Bill generated successfully! Bill ID: #" + billId);
-            displayDetailedBill(customer);
-        } else {
-            printError("Unable to generate bill at this time. Please try again.");
+        String idempotencyKey = newIdempotencyKey();
+        Bill bill = customerService.generateCombinedBill(customer, idempotencyKey);
+        while (bill == null) {
+            printError("Unable to generate bill at this time.");
+            if (!askToRetry()) {
+                waitForEnter();
+                return;
+            }
+            bill = customerService.generateCombinedBill(customer, idempotencyKey);
         }
+
+        printSuccess("Bill generated successfully! Bill ID: #" + bill.getBillId());
+        displayDetailedBill(bill);
         waitForEnter();
     }
 
-    private void displayDetailedBill(Customer customer) {
+    private void displayDetailedBill(Bill bill) {
         printSubHeader("Your Detailed Bill");
 
-        var orderItems = customerService.getAllOrderItemsForCustomer(
-                customer.getCustomerId(), customer.getTableId());
-
-        if (orderItems.isEmpty()) {
+        if (bill.getLines().isEmpty()) {
             printInfo("No items found for billing.");
             return;
         }
@@ -152,19 +255,20 @@ public class CustomerCLI extends BaseCLI {
         System.out.printf("%-25s %-8s %-10s %-12s%n", "Item", "Qty", "Price", "Line Total");
         System.out.println(SUB_DIVIDER);
 
-        double grandTotal = 0.0;
-        for (var orderItem : orderItems) {
-            double lineTotal = orderItem.getQuantity() * orderItem.getPrice();
-            grandTotal += lineTotal;
-            System.out.printf("%-25s %-8d Rs %-9.2f Rs %-11.2f%n",
-                    orderItem.getItemName(),
-                    orderItem.getQuantity(),
-                    orderItem.getPrice(),
-                    lineTotal);
+        for (var billLine : bill.getLines()) {
+            System.out.printf("%-25s %-8d Rs %-9s Rs %-11s%n",
+                    billLine.getItemName(),
+                    billLine.getQuantity(),
+                    Money.format(billLine.getPricePaise()),
+                    Money.format(billLine.getLineTotalPaise()));
         }
 
         System.out.println(SUB_DIVIDER);
-        System.out.printf("%-43s Rs %-11.2f%n", "GRAND TOTAL:", grandTotal);
+        System.out.printf("%-43s Rs %-11s%n", "GRAND TOTAL:", Money.format(bill.getTotalPaise()));
         System.out.println(DIVIDER);
     }
-}
\ No newline at end of file
+
+    private static String showSlotTime(Instant time) {
+        return SLOT_TIME.format(time.atZone(ZoneId.systemDefault()));
+    }
+}
@@ -17,7 +17,7 @@ public class ManagerCLI extends BaseCLI {
         boolean shouldContinueLoop = true;
         while (shouldContinueLoop) {
             printManagerMenu(manager);
-            int userChoice = getChoice("Select management task (1-6): ");
+            int userChoice = getChoice("Select management task (1-7): ");
 
             switch (userChoice) {
                 case 1 -> viewCompletedOrders();
@@ -25,11 +25,12 @@ public class ManagerCLI extends BaseCLI {
                 case 3 -> recordPayment();
                 case 4 -> viewVacantTables();
                 case 5 -> freeTable();
-                case 6 -> {
+                case 6 -> viewWaiterLoads();
+                case 7 -> {
                     printInfo("Management session ended. Great work today, " + manager.getName() + "!");
                     shouldContinueLoop = false;
                 }
-                default -> printError("Invalid choice! Please select a number between 1-6.");
+                default -> printError("Invalid choice! Please select a number between 1-7.");
             }
         }
     }
@@ -51,7 +52,10 @@ public class ManagerCLI extends BaseCLI {
         System.out.println("5. Free Table Manually");
         System.out.println("   Manually release table for new customers");
         System.out.println();
-        System.out.println("6. End Management Session");
+        System.out.println("6. View Waiter Workload");
+        System.out.println("   See open orders and tables per waiter");
+        System.out.println();
+        System.out.println("7. End Management Session");
         System.out.println("   Logout from management dashboard");
         System.out.println(DIVIDER);
     }
@@ -97,9 +101,9 @@ public class ManagerCLI extends BaseCLI {
         printSubHeader("Bill Generation Service");
 
         int orderId = getChoice("Enter Order ID for billing: ");
-        double totalAmount = getDoubleInput("Enter total bill amount (Rs): ");
+        long totalPaise = getMoneyInput("Enter total bill amount (Rs): ");
 
-        int billId = managerService.generateBill(orderId, totalAmount);
+        int billId = managerService.generateBill(orderId, totalPaise);
         if (billId > 0) {
             printSuccess("Bill #" + billId + " generated successfully!");
         } else {
@@ -113,13 +117,41 @@ public class ManagerCLI extends BaseCLI {
 
         int billId = getChoice("Enter Bill ID: ");
         String paymentMethod = getInput("Payment method (CASH/CARD/UPI): ").toUpperCase();
-        double paymentAmount = getDoubleInput("Enter payment amount (Rs): ");
+        long paymentPaise = getMoneyInput("Enter payment amount (Rs): ");
 
-        boolean isPaymentSuccessful = managerService.recordPayment(billId, paymentMethod, paymentAmount);
-        if (isPaymentSuccessful) {
-            printSuccess("Payment recorded successfully! Table has been freed for new customers.");
-        } else {
+        String idempotencyKey = newIdempotencyKey();
+        boolean isPaymentSuccessful = managerService.recordPayment(billId, paymentMethod, paymentPaise, idempotencyKey);
+        while (!isPaymentSuccessful) {
             printError("Payment processing failed. Please verify bill details.");
+            if (!askToRetry()) {
+                waitForEnter();
+                return;
+            }
+            isPaymentSuccessful = managerService.recordPayment(billId, paymentMethod, paymentPaise, idempotencyKey);
+        }
+        printSuccess("Payment recorded successfully! Table has been freed for new customers.");
+        waitForEnter();
+    }
+
+    private void viewWaiterLoads() {
+        printSubHeader("Waiter Workload");
+
+        var waiterLoads = managerService.viewWaiterLoads();
+        if (waiterLoads.isEmpty()) {
+            printInfo("No waiters on record yet.");
+            waitForEnter();
+            return;
+        }
+
+        System.out.printf("%-10s %-12s %-12s %-15s%n", "Waiter ID", "Open Orders", "Open Tables", "Orders Given");
+        System.out.println(SUB_DIVIDER);
+
+        for (var waiterLoad : waiterLoads) {
+            System.out.printf("%-10d %-12d %-12d %-15d%n",
+                    waiterLoad.getWaiterId(),
+                    waiterLoad.getOpenOrders(),
+                    waiterLoad.getOpenTables(),
+                    waiterLoad.getAssignedOrders());
         }
         waitForEnter();
     }
@@ -152,8 +184,11 @@ public class ManagerCLI extends BaseCLI {
         printSubHeader("Manual Table Release Service");
 
         int tableId = getChoice("Enter Table ID to free: ");
-        managerService.freeTableManually(tableId);
-        printSuccess("Table #" + tableId + " has been manually freed and is now available.");
+        if (managerService.freeTableManually(tableId)) {
+            printSuccess("Table #" + tableId + " has been manually freed and is now available.");
+        } else {
+            printError("Table #" + tableId + " could not be freed. Please verify the table ID and try again.");
+        }
         waitForEnter();
     }
 }
\ No newline at end of file
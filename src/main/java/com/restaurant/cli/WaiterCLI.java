@@ -1,12 +1,17 @@
 package com.restaurant.cli;
 
+import com.restaurant.model.Order;
 import com.restaurant.model.Waiter;
 import com.restaurant.service.WaiterService;
 
+import java.util.List;
+
 /**
  * Waiter interface for managing assigned tables and orders
  */
 public class WaiterCLI extends BaseCLI {
+    private static final int ORDERS_PER_PAGE = 20;
+
     private final WaiterService waiterService;
 
     public WaiterCLI() {
@@ -47,16 +52,30 @@ public class WaiterCLI extends BaseCLI {
     private void viewAssignedTablesAndOrders(Waiter waiter) {
         printSubHeader("Your Assigned Tables and Orders");
 
-        var assignedOrders = waiterService.getOrdersForWaiter(waiter.getStaffId());
-        if (assignedOrders.isEmpty()) {
-            printInfo("No tables or orders currently assigned to you. Enjoy your break!");
-            waitForEnter();
-            return;
-        }
+        Order lastShownOrder = null;
+        while (true) {
+            List<Order> assignedOrders = waiterService.getOrdersForWaiter(waiter.getStaffId(), lastShownOrder, ORDERS_PER_PAGE);
+            if (assignedOrders.isEmpty()) {
+                if (lastShownOrder == null) {
+                    printInfo("No tables or orders currently assigned to you. Enjoy your break!");
+                }
+                break;
+            }
+            if (lastShownOrder == null) {
+                System.out.printf("%-10s %-10s %-12s %-20s%n", "Order ID", "Table ID", "Customer ID", "Items Status");
+                System.out.println(SUB_DIVIDER);
+            }
+            printAssignedOrders(assignedOrders);
 
-        System.out.printf("%-10s %-10s %-12s %-20s%n", "Order ID", "Table ID", "Customer ID", "Items Status");
-        System.out.println(SUB_DIVIDER);
+            lastShownOrder = assignedOrders.get(assignedOrders.size() - 1);
+            if (assignedOrders.size() < ORDERS_PER_PAGE || getChoice("Show more orders? (1 = yes, 0 = no): ") != 1) {
+                break;
+            }
+        }
+        waitForEnter();
+    }
 
+    private void printAssignedOrders(List<Order> assignedOrders) {
         for (var order : assignedOrders) {
             System.out.printf("%-10d %-10d %-12d",
                     order.getOrderId(),
@@ -78,7 +97,6 @@ public class WaiterCLI extends BaseCLI {
                 }
             }
         }
-        waitForEnter();
     }
 
     private void markOrderAsServed() {
@@ -0,0 +1,51 @@
+package com.restaurant.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * application settings.
+ * It loads application.properties once and gives typed values with defaults.
+ */
+public final class ApplicationProperties {
+    private static final Properties properties = load();
+
+    private ApplicationProperties() {}
+
+    private static Properties load() {
+        try (InputStream input = ApplicationProperties.class.getClassLoader()
+                .getResourceAsStream("application.properties")) {
+            Properties loaded = new Properties();
+            if (input != null) {
+                loaded.load(input);
+            }
+            return loaded;
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    public static String getString(String key) {
+        return properties.getProperty(key);
+    }
+
+    public static String getString(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+}
@@ -0,0 +1,310 @@
+package com.restaurant.config;
+
+import com.restaurant.util.LoggerUtil;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * bounded pool of database connections.
+ * DAOs still call DatabaseConnection.fetchConnection() and close() the connection,
+ * but close() now puts the physical connection back here instead of dropping it.
+ * sizes, timeouts and validation are read from db.pool.* keys of application.properties.
+ */
+public class ConnectionPool {
+    private static final Logger logger = LoggerUtil.grabLogger();
+
+    private final String dbUrl;
+    private final String dbUsername;
+    private final String dbPassword;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final boolean validateOnBorrow;
+    private final int validationTimeoutSeconds;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder validationFailureCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(String dbUrl, String dbUsername, String dbPassword) {
+        this.dbUrl = dbUrl;
+        this.dbUsername = dbUsername;
+        this.dbPassword = dbPassword;
+
+        this.maxSize = Math.max(1, ApplicationProperties.getInt("db.pool.maxSize", 10));
+        this.minSize = Math.min(maxSize, Math.max(0, ApplicationProperties.getInt("db.pool.minSize", 2)));
+        this.acquireTimeoutMillis = ApplicationProperties.getLong("db.pool.acquireTimeoutMillis", 5000);
+        this.idleTimeoutMillis = ApplicationProperties.getLong("db.pool.idleTimeoutMillis", 300000);
+        this.validateOnBorrow = ApplicationProperties.getBoolean("db.pool.validateOnBorrow", true);
+        this.validationTimeoutSeconds = ApplicationProperties.getInt("db.pool.validationTimeoutSeconds", 2);
+        long housekeepingMillis = ApplicationProperties.getLong("db.pool.housekeepingIntervalMillis", 30000);
+
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::evictIdleConnections,
+                housekeepingMillis, housekeepingMillis, TimeUnit.MILLISECONDS);
+
+        fillToMinimum();
+    }
+
+    /**
+     * borrow a connection. waits up to acquire timeout when all connections are busy.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("connection pool is already closed");
+        }
+
+        long waitStarted = System.nanoTime();
+        boolean acquired;
+        waitingThreads.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while waiting for database connection", exception);
+        } finally {
+            waitingThreads.decrementAndGet();
+        }
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLException("no database connection free after " + acquireTimeoutMillis + " ms, " + getMetrics());
+        }
+        totalWaitNanos.add(System.nanoTime() - waitStarted);
+
+        try {
+            PooledConnection pooled = takeIdleOrCreate();
+            activeConnections.incrementAndGet();
+            borrowCount.increment();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException exception) {
+            permits.release();
+            throw exception;
+        }
+    }
+
+    public PoolMetrics getMetrics() {
+        long borrowed = borrowCount.sum();
+        double averageWaitMillis = borrowed == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / borrowed;
+        return new PoolMetrics(maxSize, openConnections.get(), idleConnections.size(), activeConnections.get(),
+                waitingThreads.get(), borrowed, createdCount.sum(), destroyedCount.sum(),
+                timeoutCount.sum(), validationFailureCount.sum(), averageWaitMillis);
+    }
+
+    /**
+     * close every idle connection and stop housekeeping.
+     * connections still borrowed are closed when they come back.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        logger.info("connection pool closed " + getMetrics());
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            if (!validateOnBorrow || isUsable(pooled)) {
+                return pooled;
+            }
+            validationFailureCount.increment();
+            destroy(pooled);
+        }
+        return create();
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            return pooled.physicalConnection.isValid(validationTimeoutSeconds);
+        } catch (SQLException exception) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physicalConnection = DriverManager.getConnection(dbUrl, dbUsername, dbPassword);
+        openConnections.incrementAndGet();
+        createdCount.increment();
+        return new PooledConnection(physicalConnection);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        openConnections.decrementAndGet();
+        destroyedCount.increment();
+        try {
+            pooled.physicalConnection.close();
+        } catch (SQLException exception) {
+            logger.fine("error closing pooled connection: " + exception.getMessage());
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        activeConnections.decrementAndGet();
+        try {
+            Connection physicalConnection = pooled.physicalConnection;
+            if (closed || pooled.broken || physicalConnection.isClosed()) {
+                destroy(pooled);
+                return;
+            }
+            if (!physicalConnection.getAutoCommit()) {
+                physicalConnection.rollback();
+                physicalConnection.setAutoCommit(true);
+            }
+            physicalConnection.clearWarnings();
+            pooled.lastReturnedMillis = System.currentTimeMillis();
+            idleConnections.offerFirst(pooled);
+        } catch (SQLException exception) {
+            logger.warning("dropping connection that could not be reset: " + exception.getMessage());
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictIdleConnections() {
+        try {
+            long now = System.currentTimeMillis();
+            Iterator<PooledConnection> oldestFirst = idleConnections.descendingIterator();
+            while (oldestFirst.hasNext() && openConnections.get() > minSize) {
+                PooledConnection pooled = oldestFirst.next();
+                if (now - pooled.lastReturnedMillis >= idleTimeoutMillis
+                        && idleConnections.removeLastOccurrence(pooled)) {
+                    destroy(pooled);
+                }
+            }
+            fillToMinimum();
+        } catch (RuntimeException exception) {
+            logger.warning("connection pool housekeeping failed: " + exception.getMessage());
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && openConnections.get() < minSize) {
+            if (!permits.tryAcquire()) {
+                return;
+            }
+            try {
+                PooledConnection pooled = create();
+                pooled.lastReturnedMillis = System.currentTimeMillis();
+                idleConnections.offerLast(pooled);
+            } catch (SQLException exception) {
+                logger.warning("could not open minimum pool connections: " + exception.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private static boolean isConnectionFailure(SQLException exception) {
+        String sqlState = exception.getSQLState();
+        return sqlState != null && sqlState.startsWith("08");
+    }
+
+    /**
+     * one physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+        private final Connection physicalConnection;
+        private volatile long lastReturnedMillis;
+        private volatile boolean broken;
+
+        private PooledConnection(Connection physicalConnection) {
+            this.physicalConnection = physicalConnection;
+        }
+
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LeaseHandler(this));
+        }
+    }
+
+    /**
+     * handle given to callers. close() returns the connection, everything else goes to the real one.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || pooled.physicalConnection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "pooled " + pooled.physicalConnection;
+                }
+                default -> {
+                    if (returned) {
+                        throw new SQLException("connection already returned to pool");
+                    }
+                }
+            }
+
+            try {
+                return method.invoke(pooled.physicalConnection, args);
+            } catch (InvocationTargetException exception) {
+                Throwable cause = exception.getCause();
+                if (cause instanceof SQLException sqlException && isConnectionFailure(sqlException)) {
+                    pooled.broken = true;
+                }
+                throw cause;
+            }
+        }
+    }
+}
@@ -1,37 +1,28 @@
 package com.restaurant.config;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
-import java.util.Properties;
-import java.io.InputStream;
-import java.io.IOException;
 
 /**
  * database connection.
- * It reads from properties file and prepare and returns a connection.
+ * It reads from properties file and hands out connections from a shared pool.
+ * callers must close() the connection, which gives it back to the pool.
  */
 public class DatabaseConnection {
     private static DatabaseConnection instance;
-    private static String dbUrl;
-    private static String dbUsername;
-    private static String dbPassword;
-    private static String dbDriver;
+    private final ConnectionPool connectionPool;
 
     private DatabaseConnection() {
-        try (InputStream input = DatabaseConnection.class.getClassLoader()
-                .getResourceAsStream("application.properties")) {
-            Properties properties = new Properties();
-            properties.load(input);
-
-            dbUrl = properties.getProperty("db.url");
-            dbUsername = properties.getProperty("db.username");
-            dbPassword = properties.getProperty("db.password");
-            dbDriver = properties.getProperty("db.driver");
+        String dbUrl = ApplicationProperties.getString("db.url");
+        String dbUsername = ApplicationProperties.getString("db.username");
+        String dbPassword = ApplicationProperties.getString("db.password");
+        String dbDriver = ApplicationProperties.getString("db.driver");
 
+        try {
             Class.forName(dbDriver);
-        } catch (IOException | ClassNotFoundException exception) {
+        } catch (ClassNotFoundException exception) {
             throw new RuntimeException(exception);
         }
+        connectionPool = new ConnectionPool(dbUrl, dbUsername, dbPassword);
     }
 
     public static synchronized DatabaseConnection getInstance() {
@@ -42,15 +33,25 @@ public class DatabaseConnection {
     }
 
     public static Connection fetchConnection() {
-        if (instance == null) {
-            getInstance(); // ensure constructor runs and loads props
+        Connection transactionConnection = TransactionManager.joinCurrent();
+        if (transactionConnection != null) {
+            return transactionConnection;
         }
         try {
-            return DriverManager.getConnection(dbUrl, dbUsername, dbPassword);
+            return getInstance().connectionPool.borrow();
         } catch (Exception exception) {
             throw new RuntimeException("Some issue while connecting database: " + exception.getMessage());
         }
     }
 
-}
+    public static PoolMetrics getPoolMetrics() {
+        return getInstance().connectionPool.getMetrics();
+    }
 
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.connectionPool.close();
+            instance = null;
+        }
+    }
+}
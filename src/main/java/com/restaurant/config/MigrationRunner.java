@@ -0,0 +1,167 @@
+package com.restaurant.config;
+
+import com.restaurant.util.LoggerUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * applies versioned schema scripts at startup.
+ * scripts live in db/migration on the classpath and are listed in db/migration/index.txt,
+ * named V&lt;version&gt;__&lt;description&gt;.sql. each one runs once, in its own transaction,
+ * and is recorded in schema_history with a SHA-256 of its text. a script that was changed
+ * after it ran stops the startup, since the database no longer matches the code.
+ * a postgres advisory lock makes sure only one app instance migrates at a time.
+ */
+public final class MigrationRunner {
+    private static final Logger logger = LoggerUtil.grabLogger();
+    private static final String MIGRATION_FOLDER = "db/migration/";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final long MIGRATION_LOCK_KEY = 0x52657374L;
+
+    private MigrationRunner() {}
+
+    /**
+     * apply every pending script. returns how many were applied.
+     * throws IllegalStateException when a script fails or an applied script was changed.
+     */
+    public static int migrate() {
+        TreeMap<Integer, String> scriptsByVersion = listScripts();
+
+        try (Connection lockConnection = DatabaseConnection.fetchConnection()) {
+            executeWithKey(lockConnection, "SELECT pg_advisory_lock(?)");
+            try {
+                createHistoryTable(lockConnection);
+                Map<Integer, String> appliedChecksums = readAppliedChecksums(lockConnection);
+
+                int appliedCount = 0;
+                for (Map.Entry<Integer, String> entry : scriptsByVersion.entrySet()) {
+                    int version = entry.getKey();
+                    String scriptName = entry.getValue();
+                    String script = readScript(scriptName);
+                    String checksum = sha256(script);
+
+                    String appliedChecksum = appliedChecksums.get(version);
+                    if (appliedChecksum != null) {
+                        if (!appliedChecksum.equals(checksum)) {
+                            throw new IllegalStateException("migration " + scriptName + " was changed after it was applied");
+                        }
+                        continue;
+                    }
+                    apply(version, scriptName, script, checksum);
+                    appliedCount++;
+                }
+                return appliedCount;
+            } finally {
+                executeWithKey(lockConnection, "SELECT pg_advisory_unlock(?)");
+            }
+        } catch (SQLException exception) {
+            throw new IllegalStateException("schema migration failed: " + exception.getMessage(), exception);
+        }
+    }
+
+    private static void apply(int version, String scriptName, String script, String checksum) throws SQLException {
+        TransactionManager.inTransaction(() -> {
+            try (Connection connection = DatabaseConnection.fetchConnection();
+                 Statement statement = connection.createStatement();
+                 PreparedStatement historyStatement = connection.prepareStatement(
+                         "INSERT INTO schema_history (version, description, checksum) VALUES (?, ?, ?)")) {
+
+                statement.execute(script);
+                historyStatement.setInt(1, version);
+                historyStatement.setString(2, describe(scriptName));
+                historyStatement.setString(3, checksum);
+                historyStatement.executeUpdate();
+            }
+            return null;
+        });
+        logger.info("applied schema migration " + scriptName);
+    }
+
+    private static TreeMap<Integer, String> listScripts() {
+        TreeMap<Integer, String> scriptsByVersion = new TreeMap<>();
+        for (String line : readScript("index.txt").split("\\R")) {
+            String scriptName = line.trim();
+            if (scriptName.isEmpty() || scriptName.startsWith("#")) {
+                continue;
+            }
+            Matcher matcher = SCRIPT_NAME.matcher(scriptName);
+            if (!matcher.matches()) {
+                throw new IllegalStateException("migration name " + scriptName + " does not look like V<version>__<description>.sql");
+            }
+            String previous = scriptsByVersion.put(Integer.parseInt(matcher.group(1)), scriptName);
+            if (previous != null) {
+                throw new IllegalStateException("migrations " + previous + " and " + scriptName + " have the same version");
+            }
+        }
+        return scriptsByVersion;
+    }
+
+    private static void createHistoryTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_history (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "checksum CHAR(64) NOT NULL, " +
+                    "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    private static Map<Integer, String> readAppliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, String> appliedChecksums = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM schema_history")) {
+            while (resultSet.next()) {
+                appliedChecksums.put(resultSet.getInt("version"), resultSet.getString("checksum"));
+            }
+        }
+        return appliedChecksums;
+    }
+
+    private static void executeWithKey(Connection connection, String query) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, MIGRATION_LOCK_KEY);
+            statement.execute();
+        }
+    }
+
+    private static String readScript(String fileName) {
+        try (InputStream input = MigrationRunner.class.getClassLoader().getResourceAsStream(MIGRATION_FOLDER + fileName)) {
+            if (input == null) {
+                throw new IllegalStateException("migration file " + MIGRATION_FOLDER + fileName + " not found on classpath");
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException exception) {
+            throw new IllegalStateException("cannot read migration file " + fileName + ": " + exception.getMessage(), exception);
+        }
+    }
+
+    private static String describe(String scriptName) {
+        Matcher matcher = SCRIPT_NAME.matcher(scriptName);
+        return matcher.matches() ? matcher.group(2).replace('_', ' ') : scriptName;
+    }
+
+    static String sha256(String script) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(script.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 not available", exception);
+        }
+    }
+}
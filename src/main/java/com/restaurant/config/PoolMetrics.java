@@ -0,0 +1,93 @@
+package com.restaurant.config;
+
+/**
+ * snapshot of connection pool numbers at one moment.
+ * used for logging and to see if pool is too small during rush hours.
+ */
+public final class PoolMetrics {
+    private final int maxSize;
+    private final int totalConnections;
+    private final int idleConnections;
+    private final int activeConnections;
+    private final int waitingThreads;
+    private final long borrowCount;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long timeoutCount;
+    private final long validationFailureCount;
+    private final double averageWaitMillis;
+
+    public PoolMetrics(int maxSize, int totalConnections, int idleConnections, int activeConnections,
+                       int waitingThreads, long borrowCount, long createdCount, long destroyedCount,
+                       long timeoutCount, long validationFailureCount, double averageWaitMillis) {
+        this.maxSize = maxSize;
+        this.totalConnections = totalConnections;
+        this.idleConnections = idleConnections;
+        this.activeConnections = activeConnections;
+        this.waitingThreads = waitingThreads;
+        this.borrowCount = borrowCount;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.timeoutCount = timeoutCount;
+        this.validationFailureCount = validationFailureCount;
+        this.averageWaitMillis = averageWaitMillis;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailureCount;
+    }
+
+    public double getAverageWaitMillis() {
+        return averageWaitMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "pool[total=" + totalConnections + "/" + maxSize +
+                ", idle=" + idleConnections +
+                ", active=" + activeConnections +
+                ", waiting=" + waitingThreads +
+                ", borrowed=" + borrowCount +
+                ", created=" + createdCount +
+                ", destroyed=" + destroyedCount +
+                ", timeouts=" + timeoutCount +
+                ", validationFailures=" + validationFailureCount +
+                ", avgWaitMs=" + String.format("%.3f", averageWaitMillis) + "]";
+    }
+}
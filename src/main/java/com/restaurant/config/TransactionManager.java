@@ -0,0 +1,173 @@
+package com.restaurant.config;
+
+import com.restaurant.util.LoggerUtil;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * unit of work for service methods that touch many DAOs.
+ * inside inTransaction(...) every DatabaseConnection.fetchConnection() on the same thread
+ * gets the same connection, and all statements are committed or rolled back once at the end.
+ * DAOs do not need to know about it, their close() simply does nothing inside the scope.
+ * in-memory copies of database state register afterCommit/afterRollback hooks so they
+ * only change once the database change is final.
+ */
+public final class TransactionManager {
+    private static final Logger logger = LoggerUtil.grabLogger();
+    private static final ThreadLocal<Connection> currentConnection = new ThreadLocal<>();
+    private static final ThreadLocal<List<Runnable>> commitHooks = new ThreadLocal<>();
+    private static final ThreadLocal<List<Runnable>> rollbackHooks = new ThreadLocal<>();
+
+    private TransactionManager() {}
+
+    /**
+     * work that runs inside one transaction, may throw its own checked exception.
+     */
+    @FunctionalInterface
+    public interface TransactionalWork<T, E extends Exception> {
+        T execute() throws E;
+    }
+
+    /**
+     * run work in one transaction. any exception rolls everything back and is thrown again as it is.
+     * when a transaction is already open on this thread the work simply joins it.
+     */
+    public static <T, E extends Exception> T inTransaction(TransactionalWork<T, E> work) throws E {
+        if (currentConnection.get() != null) {
+            return work.execute();
+        }
+
+        Connection connection = DatabaseConnection.fetchConnection();
+        List<Runnable> onCommit = new ArrayList<>();
+        List<Runnable> onRollback = new ArrayList<>();
+        try {
+            begin(connection);
+            currentConnection.set(connection);
+            commitHooks.set(onCommit);
+            rollbackHooks.set(onRollback);
+            T result = work.execute();
+            clearScope();
+            commit(connection);
+            runHooks(onCommit);
+            return result;
+        } catch (Throwable failure) {
+            clearScope();
+            rollbackQuietly(connection);
+            runHooks(onRollback);
+            throw failure;
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * run this once the open transaction commits. without a transaction it runs right away.
+     */
+    public static void afterCommit(Runnable hook) {
+        List<Runnable> hooks = commitHooks.get();
+        if (hooks == null) {
+            hook.run();
+        } else {
+            hooks.add(hook);
+        }
+    }
+
+    /**
+     * run this if the open transaction rolls back. without a transaction nothing can roll back, so it is dropped.
+     */
+    public static void afterRollback(Runnable hook) {
+        List<Runnable> hooks = rollbackHooks.get();
+        if (hooks != null) {
+            hooks.add(hook);
+        }
+    }
+
+    public static boolean isActive() {
+        return currentConnection.get() != null;
+    }
+
+    /**
+     * connection of the open transaction wrapped so that close() keeps it open, or null if none.
+     */
+    static Connection joinCurrent() {
+        Connection connection = currentConnection.get();
+        if (connection == null) {
+            return null;
+        }
+        return (Connection) Proxy.newProxyInstance(TransactionManager.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            return null;
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> {
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException exception) {
+                                throw exception.getCause();
+                            }
+                        }
+                    }
+                });
+    }
+
+    private static void clearScope() {
+        currentConnection.remove();
+        commitHooks.remove();
+        rollbackHooks.remove();
+    }
+
+    private static void runHooks(List<Runnable> hooks) {
+        for (Runnable hook : hooks) {
+            try {
+                hook.run();
+            } catch (RuntimeException exception) {
+                logger.warning("transaction hook failed: " + exception.getMessage());
+            }
+        }
+    }
+
+    private static void begin(Connection connection) {
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException exception) {
+            throw new RuntimeException("could not start transaction: " + exception.getMessage(), exception);
+        }
+    }
+
+    private static void commit(Connection connection) {
+        try {
+            connection.commit();
+        } catch (SQLException exception) {
+            throw new RuntimeException("could not commit transaction: " + exception.getMessage(), exception);
+        }
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException exception) {
+            logger.warning("rollback failed: " + exception.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException exception) {
+            logger.warning("could not return transaction connection: " + exception.getMessage());
+        }
+    }
+}
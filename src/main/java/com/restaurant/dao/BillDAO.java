@@ -1,7 +1,12 @@
 package com.restaurant.dao;
 
 import com.restaurant.config.DatabaseConnection;
+import com.restaurant.config.TransactionManager;
+import com.restaurant.model.Bill;
+import com.restaurant.model.BillLine;
 import com.restaurant.model.Order;
+import com.restaurant.model.OrderStatus;
+import com.restaurant.util.IdempotencyCache;
 import com.restaurant.util.LoggerUtil;
 
 import java.sql.*;
@@ -12,14 +17,22 @@ import java.util.logging.Logger;
  */
 public class BillDAO {
     private static final Logger logger = LoggerUtil.grabLogger();
+    private static final String IDEMPOTENCY_SCOPE = "bill";
 
-    public int generateBill(int orderId, double totalAmount) {
-        String billQuery = "INSERT INTO bills (order_id, total_amount, is_paid) VALUES (?, ?, FALSE) RETURNING bill_id";
+    // a bill with one row per bill line. bills not made from a tab come back with a single row and no lines
+    private static final String BILL_WITH_LINES = "SELECT b.bill_id, b.order_id, CAST(b.total_amount * 100 AS BIGINT) AS total_paise, b.is_paid, " +
+            "l.menu_id, l.item_name, CAST(l.price * 100 AS BIGINT) AS price_paise, l.quantity, " +
+            "CAST(l.line_total * 100 AS BIGINT) AS line_total_paise ";
+
+    private final IdempotencyCache idempotencyCache = IdempotencyCache.getInstance();
+
+    public int generateBill(int orderId, long totalPaise) {
+        String billQuery = "INSERT INTO bills (order_id, total_amount, is_paid) VALUES (?, CAST(? AS BIGINT) / 100.0, FALSE) RETURNING bill_id";
         try (Connection connection = DatabaseConnection.fetchConnection();
              PreparedStatement statement = connection.prepareStatement(billQuery)) {
 
             statement.setInt(1, orderId);
-            statement.setDouble(2, totalAmount);
+            statement.setLong(2, totalPaise);
             ResultSet resultSet = statement.executeQuery();
 
             if (resultSet.next()) {
@@ -33,21 +46,40 @@ public class BillDAO {
         return -1;
     }
 
-    public boolean markBillAsPaid(int billId) {
-        String updateQuery = "UPDATE bills SET is_paid = TRUE WHERE bill_id = ?";
+    /**
+     * marks an unpaid bill paid and returns the order it was made for, whose customer and table
+     * the settlement works on. returns null when the bill does not exist or is already paid, so a bill
+     * is only settled once: the row lock makes a second settlement wait and then find it paid.
+     */
+    public Order markBillAsPaid(int billId) {
+        String updateQuery = "UPDATE bills b SET is_paid = TRUE FROM orders o " +
+                "WHERE b.bill_id = ? AND b.is_paid IS NOT TRUE AND o.order_id = b.order_id " +
+                "RETURNING o.order_id, o.customer_id, o.table_id, o.waiter_id, o.status, o.order_time";
         try (Connection connection = DatabaseConnection.fetchConnection();
              PreparedStatement statement = connection.prepareStatement(updateQuery)) {
 
             statement.setInt(1, billId);
-            return statement.executeUpdate() > 0;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return new Order(resultSet.getInt("order_id"),
+                            resultSet.getInt("customer_id"),
+                            resultSet.getInt("table_id"),
+                            resultSet.getInt("waiter_id"),
+                            OrderStatus.valueOf(resultSet.getString("status")),
+                            resultSet.getString("order_time"));
+                }
+            }
         } catch (SQLException exception) {
             logger.warning("error marking bill " + billId + " as paid: " + exception.getMessage());
-            return false;
         }
+        return null;
     }
 
-    public double getBillTotal(int billId) {
-        String selectQuery = "SELECT total_amount FROM bills WHERE bill_id = ?";
+    /**
+     * bill total in paise, 0 if the bill is not found.
+     */
+    public long getBillTotalPaise(int billId) {
+        String selectQuery = "SELECT CAST(total_amount * 100 AS BIGINT) AS total_paise FROM bills WHERE bill_id = ?";
         try (Connection connection = DatabaseConnection.fetchConnection();
              PreparedStatement statement = connection.prepareStatement(selectQuery)) {
 
@@ -55,70 +87,148 @@ public class BillDAO {
             ResultSet resultSet = statement.executeQuery();
 
             if (resultSet.next()) {
-                return resultSet.getDouble("total_amount");
+                return resultSet.getLong("total_paise");
             }
         } catch (SQLException exception) {
             logger.warning("error fetching bill total for bill " + billId + ": " + exception.getMessage());
         }
-        return 0.0;
+        return 0;
+    }
+
+    public Bill generateCombinedBill(int customerId, int tableId) {
+        return generateCombinedBill(customerId, tableId, null);
     }
 
-    public int generateCombinedBill(int customerId, int tableId) {
-        String itemsQuery = "SELECT oi.quantity, m.price " +
-                "FROM orders o " +
-                "JOIN order_items oi ON o.order_id = oi.order_id " +
-                "JOIN menu m ON oi.menu_id = m.menu_id " +
-                "WHERE o.customer_id = ? AND o.table_id = ?";
+    /**
+     * bill for everything the customer ordered at this table, with its lines.
+     * the total and lines are already kept on the customer's open tab, so one statement copies the tab
+     * into a new bill and its bill_lines, closes the tab and returns the bill with its lines,
+     * no matter how many orders the visit had. the tab row is locked first, so two bills for the
+     * same tab cannot both be made; orders placed afterwards go on a new tab.
+     * with an idempotency key a retry gets back the bill made the first time instead of a second bill.
+     * returns null when there is nothing to bill or on error.
+     */
+    public Bill generateCombinedBill(int customerId, int tableId, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            int existingBillId = findBillIdByKey(idempotencyKey);
+            if (existingBillId != -1) {
+                return getBill(existingBillId);
+            }
+        }
 
-        double totalAmount = 0.0;
+        String billQuery = "WITH tab AS (SELECT tab_id, last_order_id, total_amount FROM tabs " +
+                "WHERE customer_id = ? AND table_id = ? AND is_open FOR UPDATE), " +
+                "bill AS (" +
+                "INSERT INTO bills (order_id, total_amount, is_paid, idempotency_key, tab_id) " +
+                "SELECT last_order_id, total_amount, FALSE, ?, tab_id FROM tab WHERE total_amount > 0 " +
+                "ON CONFLICT (idempotency_key) DO NOTHING " +
+                "RETURNING bill_id, order_id, total_amount, is_paid, tab_id), " +
+                "closed AS (UPDATE tabs SET is_open = FALSE WHERE tab_id IN (SELECT tab_id FROM bill)), " +
+                "lines AS (" +
+                "INSERT INTO bill_lines (bill_id, menu_id, item_name, price, quantity, line_total) " +
+                "SELECT b.bill_id, t.menu_id, t.item_name, t.price, t.quantity, t.line_total " +
+                "FROM bill b JOIN tab_lines t ON t.tab_id = b.tab_id " +
+                "RETURNING bill_id, menu_id, item_name, price, quantity, line_total) " +
+                BILL_WITH_LINES +
+                "FROM bill b LEFT JOIN lines l ON l.bill_id = b.bill_id " +
+                "ORDER BY l.item_name, l.menu_id";
         try (Connection connection = DatabaseConnection.fetchConnection();
-             PreparedStatement statement = connection.prepareStatement(itemsQuery)) {
+             PreparedStatement statement = connection.prepareStatement(billQuery)) {
 
             statement.setInt(1, customerId);
             statement.setInt(2, tableId);
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                int quantity = resultSet.getInt("quantity");
-                double price = resultSet.getDouble("price");
-                totalAmount += quantity * price;
+            statement.setString(3, idempotencyKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                Bill bill = readBill(resultSet);
+                if (bill != null) {
+                    logger.info("combined bill " + bill.getBillId() + " created for customer " + customerId);
+                    if (idempotencyKey != null) {
+                        TransactionManager.afterCommit(() -> idempotencyCache.remember(IDEMPOTENCY_SCOPE, idempotencyKey, bill.getBillId()));
+                    }
+                    return bill;
+                }
             }
+        } catch (SQLException exception) {
+            logger.severe("error generating combined bill for customer " + customerId + ": " + exception.getMessage());
+            return null;
+        }
 
-            if (totalAmount > 0) {
-                String insertQuery = "INSERT INTO bills (order_id, total_amount, is_paid) VALUES (?, ?, FALSE)";
-                int orderId = getLatestOrderIdForCustomer(customerId);
+        if (idempotencyKey != null) {
+            // nothing inserted: another attempt with the same key may have got in first
+            int existingBillId = findBillIdByKey(idempotencyKey);
+            if (existingBillId != -1) {
+                return getBill(existingBillId);
+            }
+        }
+        logger.info("nothing to bill for customer " + customerId + " at table " + tableId);
+        return null;
+    }
 
-                try (PreparedStatement insertStatement = connection.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
-                    insertStatement.setInt(1, orderId);
-                    insertStatement.setDouble(2, totalAmount);
-                    insertStatement.executeUpdate();
+    /**
+     * an existing bill with the lines saved when it was made. null if not found.
+     */
+    public Bill getBill(int billId) {
+        String billQuery = BILL_WITH_LINES +
+                "FROM bills b LEFT JOIN bill_lines l ON l.bill_id = b.bill_id " +
+                "WHERE b.bill_id = ? " +
+                "ORDER BY l.item_name, l.menu_id";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(billQuery)) {
 
-                    ResultSet keys = insertStatement.getGeneratedKeys();
-                    if (keys.next()) {
-                        return keys.getInt(1);
-                    }
-                }
+            statement.setInt(1, billId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return readBill(resultSet);
             }
         } catch (SQLException exception) {
-            LoggerUtil.grabLogger().severe("Error generating combined bill: " + exception.getMessage());
+            logger.warning("error fetching bill " + billId + ": " + exception.getMessage());
+            return null;
         }
-        return -1;
     }
 
-    private int getLatestOrderIdForCustomer(int customerId) {
-        String orderQuery = "SELECT order_id FROM orders WHERE customer_id = ? ORDER BY order_id DESC LIMIT 1";
+    /**
+     * bill created earlier under this idempotency key, -1 if none.
+     */
+    public int findBillIdByKey(String idempotencyKey) {
+        int cachedBillId = idempotencyCache.get(IDEMPOTENCY_SCOPE, idempotencyKey);
+        if (cachedBillId != -1) {
+            return cachedBillId;
+        }
+        String selectQuery = "SELECT bill_id FROM bills WHERE idempotency_key = ?";
         try (Connection connection = DatabaseConnection.fetchConnection();
-             PreparedStatement statement = connection.prepareStatement(orderQuery)) {
-
-            statement.setInt(1, customerId);
-            ResultSet resultSet = statement.executeQuery();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
 
-            if (resultSet.next()) {
-                return resultSet.getInt("order_id");
+            statement.setString(1, idempotencyKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    int billId = resultSet.getInt("bill_id");
+                    idempotencyCache.remember(IDEMPOTENCY_SCOPE, idempotencyKey, billId);
+                    return billId;
+                }
             }
-        } catch (Exception exception) {
-            LoggerUtil.grabLogger().severe("Error fetching latest order: " + exception.getMessage());
+        } catch (SQLException exception) {
+            logger.warning("error looking up bill by key " + idempotencyKey + ": " + exception.getMessage());
         }
         return -1;
     }
-}
\ No newline at end of file
+
+    private Bill readBill(ResultSet resultSet) throws SQLException {
+        Bill bill = null;
+        while (resultSet.next()) {
+            if (bill == null) {
+                bill = new Bill(resultSet.getInt("bill_id"),
+                        resultSet.getInt("order_id"),
+                        resultSet.getLong("total_paise"),
+                        resultSet.getBoolean("is_paid"));
+            }
+            int menuId = resultSet.getInt("menu_id");
+            if (!resultSet.wasNull()) {
+                bill.addLine(new BillLine(menuId,
+                        resultSet.getString("item_name"),
+                        resultSet.getLong("price_paise"),
+                        resultSet.getInt("quantity"),
+                        resultSet.getLong("line_total_paise")));
+            }
+        }
+        return bill;
+    }
+}
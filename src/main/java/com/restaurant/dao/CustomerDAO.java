@@ -5,6 +5,7 @@ import com.restaurant.model.Customer;
 import com.restaurant.util.LoggerUtil;
 
 import java.sql.*;
+import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -27,6 +28,31 @@ public class CustomerDAO {
         }
     }
 
+    /**
+     * links many customers to their tables with one JDBC batch. key is customer id, value is table id.
+     */
+    public boolean assignTablesToCustomers(Map<Integer, Integer> tableIdsByCustomer) {
+        String updateQuery = "UPDATE customers SET table_id = ? WHERE customer_id = ?";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(updateQuery)) {
+
+            for (Map.Entry<Integer, Integer> link : tableIdsByCustomer.entrySet()) {
+                statement.setInt(1, link.getValue());
+                statement.setInt(2, link.getKey());
+                statement.addBatch();
+            }
+            for (int updatedRows : statement.executeBatch()) {
+                if (updatedRows == 0) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (SQLException exception) {
+            logger.severe("problem while linking tables to customers " + tableIdsByCustomer.keySet() + ": " + exception.getMessage());
+            return false;
+        }
+    }
+
     public boolean clearTableForCustomer(int customerId) {
         String updateQuery = "UPDATE customers SET table_id = NULL, is_checked_in = FALSE WHERE customer_id = ?";
         try (Connection connection = DatabaseConnection.fetchConnection();
@@ -19,7 +19,7 @@ public class MenuDAO implements MenuServiceInterface {
     @Override
     public List<MenuItem> getAllMenuItems() {
         List<MenuItem> menuItems = new ArrayList<>();
-        String selectQuery = "SELECT * FROM menu ORDER BY menu_id";
+        String selectQuery = "SELECT menu_id, item_name, CAST(price * 100 AS BIGINT) AS price_paise, is_available FROM menu ORDER BY menu_id";
         try (Connection connection = DatabaseConnection.fetchConnection();
              PreparedStatement statement = connection.prepareStatement(selectQuery);
              ResultSet resultSet = statement.executeQuery()) {
@@ -27,7 +27,7 @@ public class MenuDAO implements MenuServiceInterface {
             while (resultSet.next()) {
                 menuItems.add(new MenuItem(resultSet.getInt("menu_id"),
                         resultSet.getString("item_name"),
-                        resultSet.getDouble("price"),
+                        resultSet.getLong("price_paise"),
                         resultSet.getBoolean("is_available")));
             }
         } catch (SQLException exception) {
@@ -37,13 +37,13 @@ public class MenuDAO implements MenuServiceInterface {
     }
 
     @Override
-    public boolean addMenuItem(String name, double price) {
-        String insertQuery = "INSERT INTO menu (item_name, price, is_available) VALUES (?, ?, TRUE)";
+    public boolean addMenuItem(String name, long pricePaise) {
+        String insertQuery = "INSERT INTO menu (item_name, price, is_available) VALUES (?, CAST(? AS BIGINT) / 100.0, TRUE)";
         try (Connection connection = DatabaseConnection.fetchConnection();
              PreparedStatement statement = connection.prepareStatement(insertQuery)) {
 
             statement.setString(1, name);
-            statement.setDouble(2, price);
+            statement.setLong(2, pricePaise);
             return statement.executeUpdate() > 0;
         } catch (SQLException exception) {
             logger.warning("error adding menu item " + name + ": " + exception.getMessage());
@@ -52,12 +52,12 @@ public class MenuDAO implements MenuServiceInterface {
     }
 
     @Override
-    public boolean updatePrice(int menuId, double newPrice) {
-        String updateQuery = "UPDATE menu SET price = ? WHERE menu_id = ?";
+    public boolean updatePrice(int menuId, long newPricePaise) {
+        String updateQuery = "UPDATE menu SET price = CAST(? AS BIGINT) / 100.0 WHERE menu_id = ?";
         try (Connection connection = DatabaseConnection.fetchConnection();
              PreparedStatement statement = connection.prepareStatement(updateQuery)) {
 
-            statement.setDouble(1, newPrice);
+            statement.setLong(1, newPricePaise);
             statement.setInt(2, menuId);
             return statement.executeUpdate() > 0;
         } catch (SQLException exception) {
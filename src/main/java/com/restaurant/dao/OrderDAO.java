@@ -1,13 +1,21 @@
 package com.restaurant.dao;
 
 import com.restaurant.config.DatabaseConnection;
+import com.restaurant.config.TransactionManager;
 import com.restaurant.model.Order;
+import com.restaurant.model.ItemStatus;
+import com.restaurant.model.OrderItem;
+import com.restaurant.model.OrderStatus;
 import com.restaurant.service.interfaces.OrderServiceInterface;
+import com.restaurant.util.IdempotencyCache;
 import com.restaurant.util.LoggerUtil;
+import com.restaurant.util.WaiterLoadBalancer;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -15,29 +23,107 @@ import java.util.logging.Logger;
  */
 public class OrderDAO implements OrderServiceInterface {
     private static final Logger logger = LoggerUtil.grabLogger();
+    private static final int STREAM_FETCH_SIZE = 500;
 
-    @Override
-    public int createOrder(int customerId, int tableId, int waiterId) {
-        String insertQuery = "INSERT INTO orders (customer_id, table_id, waiter_id, status) VALUES (?, ?, ?, 'PENDING') RETURNING order_id";
+    private static final String IDEMPOTENCY_SCOPE = "order";
+    // orders o a bill covers: the billed order and the earlier orders of that customer at that table.
+    // goes with "bills b JOIN orders billed ON billed.order_id = b.order_id" and takes the bill id
+    private static final String ORDERS_OF_BILL = "b.bill_id = ? " +
+            "AND (o.order_id = billed.order_id OR (o.customer_id = billed.customer_id " +
+            "AND o.table_id = billed.table_id AND o.order_id < billed.order_id)) ";
+
+    private final WaiterLoadBalancer waiterLoadBalancer = WaiterLoadBalancer.getInstance();
+    private final IdempotencyCache idempotencyCache = IdempotencyCache.getInstance();
+
+    /**
+     * reload the waiter load balancer: every waiter with their orders not served yet, in one query.
+     * if the read fails the balancer keeps what it had.
+     */
+    public void resyncWaiterLoad() {
+        LinkedHashSet<Integer> waiterIds = new LinkedHashSet<>();
+        List<Order> openOrders = new ArrayList<>();
+        String selectQuery = "SELECT s.staff_id AS waiter_id, o.order_id, o.customer_id, o.table_id, o.status, o.order_time " +
+                "FROM staff s " +
+                "LEFT JOIN orders o ON o.waiter_id = s.staff_id AND o.status IN ('PENDING', 'READY') " +
+                "WHERE s.role = 'WAITER' " +
+                "ORDER BY o.order_time NULLS FIRST, o.order_id";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                waiterIds.add(resultSet.getInt("waiter_id"));
+                resultSet.getInt("order_id");
+                if (!resultSet.wasNull()) {
+                    openOrders.add(mapOrder(resultSet));
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error loading waiter load: " + exception.getMessage());
+            return;
+        }
+        waiterLoadBalancer.resync(new ArrayList<>(waiterIds), openOrders);
+    }
+
+    /**
+     * creates the order under the client's idempotency key (null for none).
+     * the waiter must come from WaiterLoadBalancer and the caller reports the outcome back to it,
+     * as CustomerService.insertOrder does, so the load counts stay right.
+     * returns -1 both on error and when an order with this key already exists, findOrderIdByKey tells which.
+     */
+    public int createOrder(int customerId, int tableId, int waiterId, String idempotencyKey) {
+        String insertQuery = "INSERT INTO orders (customer_id, table_id, waiter_id, status, idempotency_key) " +
+                "VALUES (?, ?, ?, 'PENDING', ?) ON CONFLICT (idempotency_key) DO NOTHING RETURNING order_id";
         try (Connection connection = DatabaseConnection.fetchConnection();
              PreparedStatement statement = connection.prepareStatement(insertQuery)) {
 
             statement.setInt(1, customerId);
             statement.setInt(2, tableId);
             statement.setInt(3, waiterId);
+            statement.setString(4, idempotencyKey);
             ResultSet resultSet = statement.executeQuery();
 
             if (resultSet.next()) {
                 int orderId = resultSet.getInt("order_id");
                 logger.info("new order " + orderId + " created for customer " + customerId);
+                if (idempotencyKey != null) {
+                    TransactionManager.afterCommit(() -> idempotencyCache.remember(IDEMPOTENCY_SCOPE, idempotencyKey, orderId));
+                }
                 return orderId;
             }
+            logger.info("order with key " + idempotencyKey + " already exists, not creating another");
         } catch (SQLException exception) {
             logger.severe("error creating order for customer " + customerId + ": " + exception.getMessage());
         }
         return -1;
     }
 
+    /**
+     * order created earlier under this idempotency key, -1 if none.
+     */
+    public int findOrderIdByKey(String idempotencyKey) {
+        int cachedOrderId = idempotencyCache.get(IDEMPOTENCY_SCOPE, idempotencyKey);
+        if (cachedOrderId != -1) {
+            return cachedOrderId;
+        }
+        String selectQuery = "SELECT order_id FROM orders WHERE idempotency_key = ?";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+            statement.setString(1, idempotencyKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    int orderId = resultSet.getInt("order_id");
+                    idempotencyCache.remember(IDEMPOTENCY_SCOPE, idempotencyKey, orderId);
+                    return orderId;
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error looking up order by key " + idempotencyKey + ": " + exception.getMessage());
+        }
+        return -1;
+    }
+
     @Override
     public List<Order> getOrdersByCustomer(int customerId) {
         List<Order> orders = new ArrayList<>();
@@ -49,12 +135,7 @@ public class OrderDAO implements OrderServiceInterface {
             ResultSet resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
-                orders.add(new Order(resultSet.getInt("order_id"),
-                        resultSet.getInt("customer_id"),
-                        resultSet.getInt("table_id"),
-                        resultSet.getInt("waiter_id"),
-                        resultSet.getString("status"),
-                        resultSet.getString("order_time")));
+                orders.add(mapOrder(resultSet));
             }
         } catch (SQLException exception) {
             logger.warning("error fetching orders for customer " + customerId + ": " + exception.getMessage());
@@ -62,41 +143,296 @@ public class OrderDAO implements OrderServiceInterface {
         return orders;
     }
 
+    /**
+     * moves the order to this status, but only from a status that may come right before it.
+     * the check is in the UPDATE itself, so when a chef and a waiter touch the same order at once
+     * exactly one of them wins and the other gets false instead of overwriting it.
+     */
     @Override
-    public boolean updateOrderStatus(int orderId, String status) {
-        String updateQuery = "UPDATE orders SET status = ? WHERE order_id = ?";
+    public boolean moveOrderTo(int orderId, OrderStatus status) {
+        return transitionOrder(orderId, status) != null;
+    }
+
+    /**
+     * same as moveOrderTo but gives back the moved order, or null when it did not move.
+     */
+    public Order transitionOrder(int orderId, OrderStatus status) {
+        String updateQuery = "UPDATE orders SET status = CAST(? AS order_status) " +
+                "WHERE order_id = ? AND status = ANY(CAST(? AS order_status[])) RETURNING *";
         try (Connection connection = DatabaseConnection.fetchConnection();
              PreparedStatement statement = connection.prepareStatement(updateQuery)) {
 
-            statement.setString(1, status);
+            statement.setString(1, status.name());
             statement.setInt(2, orderId);
-            return statement.executeUpdate() > 0;
+            statement.setArray(3, connection.createArrayOf("varchar", status.previousNames()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return mapOrder(resultSet);
+                }
+            }
+            logger.warning("order " + orderId + " not found or cannot move to " + status);
+            return null;
         } catch (SQLException exception) {
-            logger.warning("error updating status of order " + orderId + ": " + exception.getMessage());
-            return false;
+            logger.warning("error moving order " + orderId + " to " + status + ": " + exception.getMessage());
+            return null;
         }
     }
 
-    public List<Order> getOrdersByStatus(String status) {
+    /**
+     * how many orders the bill covers that are not served yet, so a bill is not settled while
+     * the kitchen or a waiter still has work on it. -1 on error.
+     */
+    public int countUnservedOrdersOfBill(int billId) {
+        // order_status values sort in the order they were declared, PENDING < READY < SERVED
+        String selectQuery = "SELECT COUNT(*) AS unserved " +
+                "FROM orders o, bills b JOIN orders billed ON billed.order_id = b.order_id " +
+                "WHERE " + ORDERS_OF_BILL +
+                "AND o.status < CAST(? AS order_status)";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+            statement.setInt(1, billId);
+            statement.setString(2, OrderStatus.SERVED.name());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt("unserved") : 0;
+            }
+        } catch (SQLException exception) {
+            logger.warning("error counting unserved orders of bill " + billId + ": " + exception.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * moves the orders the bill covers to COMPLETED when they are SERVED.
+     * run it in the transaction that marks the bill paid, after countUnservedOrdersOfBill found none.
+     * orders placed after the bill are left alone. returns how many orders moved, or -1 on error.
+     */
+    public int completeOrdersOfBill(int billId) {
+        String updateQuery = "UPDATE orders o SET status = CAST(? AS order_status) " +
+                "FROM bills b JOIN orders billed ON billed.order_id = b.order_id " +
+                "WHERE " + ORDERS_OF_BILL +
+                "AND o.status = ANY(CAST(? AS order_status[]))";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(updateQuery)) {
+
+            statement.setString(1, OrderStatus.COMPLETED.name());
+            statement.setInt(2, billId);
+            statement.setArray(3, connection.createArrayOf("varchar", OrderStatus.COMPLETED.previousNames()));
+            return statement.executeUpdate();
+        } catch (SQLException exception) {
+            logger.warning("error completing orders of bill " + billId + ": " + exception.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * items of the order still to cook, straight from the counter. -1 if the order does not exist.
+     */
+    public int getItemsRemaining(int orderId) {
+        String selectQuery = "SELECT items_remaining FROM orders WHERE order_id = ?";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+            statement.setInt(1, orderId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt("items_remaining") : -1;
+            }
+        } catch (SQLException exception) {
+            logger.warning("error reading items remaining of order " + orderId + ": " + exception.getMessage());
+            return -1;
+        }
+    }
+
+    public List<Order> getOrdersByStatus(OrderStatus status) {
         List<Order> orders = new ArrayList<>();
-        String selectQuery = "SELECT * FROM orders WHERE status = ? ORDER BY order_time";
+        String selectQuery = "SELECT * FROM orders WHERE status = CAST(? AS order_status) ORDER BY order_time";
         try (Connection connection = DatabaseConnection.fetchConnection();
              PreparedStatement statement = connection.prepareStatement(selectQuery)) {
 
-            statement.setString(1, status);
+            statement.setString(1, status.name());
             ResultSet resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
-                orders.add(new Order(resultSet.getInt("order_id"),
-                        resultSet.getInt("customer_id"),
-                        resultSet.getInt("table_id"),
-                        resultSet.getInt("waiter_id"),
-                        resultSet.getString("status"),
-                        resultSet.getString("order_time")));
+                orders.add(mapOrder(resultSet));
             }
         } catch (SQLException exception) {
             logger.warning("error fetching orders by status " + status + ": " + exception.getMessage());
         }
         return orders;
     }
-}
\ No newline at end of file
+
+    /**
+     * one page of orders with this status, oldest first. after is the last order of the previous page or null.
+     */
+    public List<Order> getOrdersByStatus(OrderStatus status, Order after, int pageSize) {
+        List<Order> orders = new ArrayList<>();
+        String selectQuery = "SELECT * FROM orders WHERE status = CAST(? AS order_status) " +
+                keysetCondition(after, false) +
+                "ORDER BY order_time, order_id LIMIT ?";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+            statement.setString(1, status.name());
+            int nextParameter = bindKeyset(statement, 2, after);
+            statement.setInt(nextParameter, pageSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    orders.add(mapOrder(resultSet));
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error fetching page of orders by status " + status + ": " + exception.getMessage());
+        }
+        return orders;
+    }
+
+    /**
+     * one page of a customer's order history, newest first. after is the last order of the previous page or null.
+     */
+    public List<Order> getOrdersByCustomer(int customerId, Order after, int pageSize) {
+        List<Order> orders = new ArrayList<>();
+        String selectQuery = "SELECT * FROM orders WHERE customer_id = ? " +
+                keysetCondition(after, true) +
+                "ORDER BY order_time DESC, order_id DESC LIMIT ?";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+            statement.setInt(1, customerId);
+            int nextParameter = bindKeyset(statement, 2, after);
+            statement.setInt(nextParameter, pageSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    orders.add(mapOrder(resultSet));
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error fetching page of orders for customer " + customerId + ": " + exception.getMessage());
+        }
+        return orders;
+    }
+
+    /**
+     * hands every order with this status to the consumer, oldest first, without keeping them in a list.
+     * rows come through a server side cursor STREAM_FETCH_SIZE at a time, which postgres only does
+     * with autocommit off, so the read runs in a transaction. returns how many orders were passed on.
+     */
+    public int streamOrdersByStatus(OrderStatus status, Consumer<Order> consumer) {
+        String selectQuery = "SELECT * FROM orders WHERE status = CAST(? AS order_status) ORDER BY order_time, order_id";
+        try {
+            return TransactionManager.inTransaction(() -> {
+                int streamedOrders = 0;
+                try (Connection connection = DatabaseConnection.fetchConnection();
+                     PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+                    statement.setFetchSize(STREAM_FETCH_SIZE);
+                    statement.setString(1, status.name());
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            consumer.accept(mapOrder(resultSet));
+                            streamedOrders++;
+                        }
+                    }
+                }
+                return streamedOrders;
+            });
+        } catch (SQLException exception) {
+            logger.warning("error streaming orders by status " + status + ": " + exception.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * one page of a waiter's orders with this status, oldest first.
+     * after is the last order of the previous page (null for the first page); paging continues
+     * from its (order_time, order_id) so every page is one index range scan, no OFFSET.
+     */
+    public List<Order> getOrdersForWaiter(int waiterId, OrderStatus status, Order after, int pageSize) {
+        List<Order> orders = new ArrayList<>();
+        String selectQuery = "SELECT * FROM orders WHERE waiter_id = ? AND status = CAST(? AS order_status) " +
+                keysetCondition(after, false) +
+                "ORDER BY order_time, order_id LIMIT ?";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+            statement.setInt(1, waiterId);
+            statement.setString(2, status.name());
+            int nextParameter = bindKeyset(statement, 3, after);
+            statement.setInt(nextParameter, pageSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    orders.add(mapOrder(resultSet));
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error fetching orders of waiter " + waiterId + ": " + exception.getMessage());
+        }
+        return orders;
+    }
+
+    /**
+     * orders with this status together with their items and item names, in one query.
+     * rows come sorted by order, so they are grouped into orders in a single pass.
+     */
+    public List<Order> getOrdersWithItemsByStatus(OrderStatus status) {
+        List<Order> orders = new ArrayList<>();
+        String selectQuery = "SELECT o.order_id, o.customer_id, o.table_id, o.waiter_id, o.status, o.order_time, " +
+                "oi.item_id, oi.menu_id, oi.quantity, oi.status AS item_status, oi.item_name " +
+                "FROM orders o " +
+                "LEFT JOIN order_items oi ON oi.order_id = o.order_id " +
+                "WHERE o.status = CAST(? AS order_status) " +
+                "ORDER BY o.order_time, o.order_id, oi.item_id";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+            statement.setString(1, status.name());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                Order currentOrder = null;
+                while (resultSet.next()) {
+                    int orderId = resultSet.getInt("order_id");
+                    if (currentOrder == null || currentOrder.getOrderId() != orderId) {
+                        currentOrder = mapOrder(resultSet);
+                        orders.add(currentOrder);
+                    }
+                    int itemId = resultSet.getInt("item_id");
+                    if (!resultSet.wasNull()) {
+                        OrderItem orderItem = new OrderItem(itemId,
+                                orderId,
+                                resultSet.getInt("menu_id"),
+                                resultSet.getInt("quantity"),
+                                ItemStatus.valueOf(resultSet.getString("item_status")));
+                        orderItem.setItemName(resultSet.getString("item_name"));
+                        currentOrder.addItem(orderItem);
+                    }
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error fetching orders with items by status " + status + ": " + exception.getMessage());
+        }
+        return orders;
+    }
+
+    private static String keysetCondition(Order after, boolean newestFirst) {
+        if (after == null) {
+            return "";
+        }
+        return "AND (order_time, order_id) " + (newestFirst ? "<" : ">") + " (CAST(? AS TIMESTAMP), ?) ";
+    }
+
+    private static int bindKeyset(PreparedStatement statement, int parameterIndex, Order after) throws SQLException {
+        if (after == null) {
+            return parameterIndex;
+        }
+        statement.setString(parameterIndex, after.getOrderTime());
+        statement.setInt(parameterIndex + 1, after.getOrderId());
+        return parameterIndex + 2;
+    }
+
+    private Order mapOrder(ResultSet resultSet) throws SQLException {
+        return new Order(resultSet.getInt("order_id"),
+                resultSet.getInt("customer_id"),
+                resultSet.getInt("table_id"),
+                resultSet.getInt("waiter_id"),
+                OrderStatus.valueOf(resultSet.getString("status")),
+                resultSet.getString("order_time"));
+    }
+}
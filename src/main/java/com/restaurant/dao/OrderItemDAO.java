@@ -1,7 +1,10 @@
 package com.restaurant.dao;
 
 import com.restaurant.config.DatabaseConnection;
+import com.restaurant.config.TransactionManager;
+import com.restaurant.model.ItemStatus;
 import com.restaurant.model.OrderItem;
+import com.restaurant.model.OrderLine;
 import com.restaurant.util.LoggerUtil;
 
 import java.sql.*;
@@ -10,32 +13,107 @@ import java.util.List;
 import java.util.logging.Logger;
 
 /**
- * Manages individual order items within orders, including status tracking and menu details.
+ * Manages individual order items within orders, including status tracking and the menu name and price they were ordered at.
+ * every add and every finished item also moves orders.items_remaining in the same statement or transaction,
+ * and every add goes on the customer's running tab (TabDAO) in that transaction too.
  */
 public class OrderItemDAO {
     private static final Logger logger = LoggerUtil.grabLogger();
 
+    private final TabDAO tabDao = new TabDAO();
+
+    /**
+     * adds one item, counts it in items_remaining and puts it on the customer's tab in one transaction.
+     * the dish name and price are copied from the menu as they are right now. false for an unknown dish.
+     */
     public boolean addItemToOrder(int orderId, int menuId, int quantity) {
-        String insertQuery = "INSERT INTO order_items (order_id, menu_id, quantity, status) VALUES (?, ?, ?, 'PENDING')";
+        String insertQuery = "WITH added AS (" +
+                "INSERT INTO order_items (order_id, menu_id, quantity, status, item_name, unit_price) " +
+                "SELECT ?, menu_id, ?, 'PENDING', item_name, price FROM menu WHERE menu_id = ? RETURNING item_id, order_id) " +
+                "UPDATE orders SET items_remaining = items_remaining + 1 " +
+                "WHERE order_id = (SELECT order_id FROM added) " +
+                "RETURNING (SELECT item_id FROM added) AS item_id";
+        try {
+            return TransactionManager.inTransaction(() -> {
+                try (Connection connection = DatabaseConnection.fetchConnection();
+                     PreparedStatement statement = connection.prepareStatement(insertQuery)) {
+
+                    statement.setInt(1, orderId);
+                    statement.setInt(2, quantity);
+                    statement.setInt(3, menuId);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (!resultSet.next()) {
+                            return false;
+                        }
+                        if (!tabDao.addToTab(orderId, List.of(resultSet.getInt("item_id")))) {
+                            throw new SQLException("tab not updated");
+                        }
+                        return true;
+                    }
+                }
+            });
+        } catch (SQLException exception) {
+            logger.warning("failed to add item to order " + orderId + ": " + exception.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * adds all cart lines to the order with one INSERT over unnest of the menu ids and quantities
+     * and puts them on the customer's tab. one round trip however big the cart, and RETURNING hands
+     * back the item ids the tab needs. each line keeps the menu name and price it was ordered at.
+     * run it inside a transaction so either every line is saved or none. false for an unknown dish.
+     */
+    public boolean addItemsToOrder(int orderId, List<OrderLine> orderLines) {
+        if (orderLines.isEmpty()) {
+            return true;
+        }
+        String insertQuery = "INSERT INTO order_items (order_id, menu_id, quantity, status, item_name, unit_price) " +
+                "SELECT ?, m.menu_id, l.quantity, 'PENDING', m.item_name, m.price " +
+                "FROM unnest(CAST(? AS INT[]), CAST(? AS INT[])) AS l(menu_id, quantity) " +
+                "JOIN menu m ON m.menu_id = l.menu_id " +
+                "RETURNING item_id";
+        String counterQuery = "UPDATE orders SET items_remaining = items_remaining + ? WHERE order_id = ?";
+        Integer[] menuIds = new Integer[orderLines.size()];
+        Integer[] quantities = new Integer[orderLines.size()];
+        for (int i = 0; i < orderLines.size(); i++) {
+            menuIds[i] = orderLines.get(i).getMenuId();
+            quantities[i] = orderLines.get(i).getQuantity();
+        }
         try (Connection connection = DatabaseConnection.fetchConnection();
-             PreparedStatement statement = connection.prepareStatement(insertQuery)) {
+             PreparedStatement statement = connection.prepareStatement(insertQuery);
+             PreparedStatement counterStatement = connection.prepareStatement(counterQuery)) {
 
             statement.setInt(1, orderId);
-            statement.setInt(2, menuId);
-            statement.setInt(3, quantity);
-            return statement.executeUpdate() > 0;
+            statement.setArray(2, connection.createArrayOf("integer", menuIds));
+            statement.setArray(3, connection.createArrayOf("integer", quantities));
+            List<Integer> itemIds = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    itemIds.add(resultSet.getInt("item_id"));
+                }
+            }
+            if (itemIds.size() < orderLines.size()) {
+                return false;
+            }
+            counterStatement.setInt(1, orderLines.size());
+            counterStatement.setInt(2, orderId);
+            if (counterStatement.executeUpdate() == 0) {
+                return false;
+            }
+            return tabDao.addToTab(orderId, itemIds);
         } catch (SQLException exception) {
-            logger.warning("failed to add item to order " + orderId + ": " + exception.getMessage());
+            logger.warning("failed to add " + orderLines.size() + " items to order " + orderId + ": " + exception.getMessage());
             return false;
         }
     }
 
     public List<OrderItem> getItemsByOrder(int orderId) {
         List<OrderItem> orderItems = new ArrayList<>();
-        String selectQuery = "SELECT oi.item_id, oi.order_id, oi.menu_id, oi.quantity, oi.status, m.item_name " +
-                "FROM order_items oi " +
-                "JOIN menu m ON oi.menu_id = m.menu_id " +
-                "WHERE oi.order_id = ?";
+        String selectQuery = "SELECT item_id, order_id, menu_id, quantity, status, item_name, " +
+                "CAST(unit_price * 100 AS BIGINT) AS price_paise " +
+                "FROM order_items " +
+                "WHERE order_id = ?";
         try (Connection connection = DatabaseConnection.fetchConnection();
              PreparedStatement statement = connection.prepareStatement(selectQuery)) {
 
@@ -48,9 +126,10 @@ public class OrderItemDAO {
                         resultSet.getInt("order_id"),
                         resultSet.getInt("menu_id"),
                         resultSet.getInt("quantity"),
-                        resultSet.getString("status")
+                        ItemStatus.valueOf(resultSet.getString("status"))
                 );
                 orderItem.setItemName(resultSet.getString("item_name"));
+                orderItem.setPricePaise(resultSet.getLong("price_paise"));
                 orderItems.add(orderItem);
             }
         } catch (SQLException exception) {
@@ -59,16 +138,67 @@ public class OrderItemDAO {
         return orderItems;
     }
 
-    public boolean updateItemStatus(int itemId, String status) {
-        String updateQuery = "UPDATE order_items SET status = ? WHERE item_id = ?";
+    /**
+     * marks an item READY and takes one off its order's items_remaining in the same statement.
+     * the order row is locked by that UPDATE, so two chefs finishing the last two items count down
+     * one after the other, and whoever reaches zero also flips the order to READY.
+     * returns how many items of the order are left, or -1 when the item was not found or already done.
+     */
+    public int completeItem(int itemId) {
+        String completeQuery = "WITH completed AS (" +
+                "UPDATE order_items SET status = 'READY' " +
+                "WHERE item_id = ? AND status = ANY(CAST(? AS item_status[])) RETURNING order_id) " +
+                "UPDATE orders o SET items_remaining = GREATEST(o.items_remaining - 1, 0), " +
+                "status = CASE WHEN o.items_remaining <= 1 AND o.status = 'PENDING' THEN 'READY' ELSE o.status END " +
+                "FROM completed WHERE o.order_id = completed.order_id " +
+                "RETURNING o.order_id, o.items_remaining";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(completeQuery)) {
+
+            statement.setInt(1, itemId);
+            statement.setArray(2, connection.createArrayOf("varchar", ItemStatus.READY.previousNames()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    logger.warning("item " + itemId + " not found or already ready");
+                    return -1;
+                }
+                int orderId = resultSet.getInt("order_id");
+                int itemsRemaining = resultSet.getInt("items_remaining");
+                if (itemsRemaining == 0) {
+                    logger.info("all items of order " + orderId + " are ready");
+                }
+                return itemsRemaining;
+            }
+        } catch (SQLException exception) {
+            logger.warning("cannot complete item " + itemId + ": " + exception.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * moves the item to this status only if it is in one that may come before it,
+     * so two chefs finishing the same item do not both succeed.
+     * READY goes through completeItem so the order's counter stays right.
+     */
+    public boolean moveItemTo(int itemId, ItemStatus status) {
+        if (status == ItemStatus.READY) {
+            return completeItem(itemId) >= 0;
+        }
+        String updateQuery = "UPDATE order_items SET status = CAST(? AS item_status) " +
+                "WHERE item_id = ? AND status = ANY(CAST(? AS item_status[]))";
         try (Connection connection = DatabaseConnection.fetchConnection();
              PreparedStatement statement = connection.prepareStatement(updateQuery)) {
 
-            statement.setString(1, status);
+            statement.setString(1, status.name());
             statement.setInt(2, itemId);
-            return statement.executeUpdate() > 0;
+            statement.setArray(3, connection.createArrayOf("varchar", status.previousNames()));
+            if (statement.executeUpdate() > 0) {
+                return true;
+            }
+            logger.warning("item " + itemId + " not found or cannot move to " + status);
+            return false;
         } catch (SQLException exception) {
-            logger.warning("cannot update status for item " + itemId + ": " + exception.getMessage());
+            logger.warning("cannot move item " + itemId + " to " + status + ": " + exception.getMessage());
             return false;
         }
     }
@@ -1,6 +1,8 @@
 package com.restaurant.dao;
 
 import com.restaurant.config.DatabaseConnection;
+import com.restaurant.config.TransactionManager;
+import com.restaurant.util.IdempotencyCache;
 import com.restaurant.util.LoggerUtil;
 
 import java.sql.*;
@@ -11,19 +13,67 @@ import java.util.logging.Logger;
  */
 public class PaymentDAO {
     private static final Logger logger = LoggerUtil.grabLogger();
+    private static final String IDEMPOTENCY_SCOPE = "payment";
 
-    public boolean recordPayment(int billId, String method, double amount) {
-        String insertQuery = "INSERT INTO payments (bill_id, payment_method, amount) VALUES (?, ?, ?)";
+    private final IdempotencyCache idempotencyCache = IdempotencyCache.getInstance();
+
+    public boolean recordPayment(int billId, String method, long amountPaise) {
+        return recordPayment(billId, method, amountPaise, null) != -1;
+    }
+
+    /**
+     * saves the payment under the client's idempotency key (null for none) and returns its id.
+     * returns -1 both on error and when a payment with this key already exists, findPaymentIdByKey tells which.
+     */
+    public int recordPayment(int billId, String method, long amountPaise, String idempotencyKey) {
+        String insertQuery = "INSERT INTO payments (bill_id, payment_method, amount, idempotency_key) VALUES (?, ?, CAST(? AS BIGINT) / 100.0, ?) " +
+                "ON CONFLICT (idempotency_key) DO NOTHING RETURNING payment_id";
         try (Connection connection = DatabaseConnection.fetchConnection();
              PreparedStatement statement = connection.prepareStatement(insertQuery)) {
 
             statement.setInt(1, billId);
             statement.setString(2, method);
-            statement.setDouble(3, amount);
-            return statement.executeUpdate() > 0;
+            statement.setLong(3, amountPaise);
+            statement.setString(4, idempotencyKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    int paymentId = resultSet.getInt("payment_id");
+                    if (idempotencyKey != null) {
+                        TransactionManager.afterCommit(() -> idempotencyCache.remember(IDEMPOTENCY_SCOPE, idempotencyKey, paymentId));
+                    }
+                    return paymentId;
+                }
+            }
+            logger.info("payment with key " + idempotencyKey + " already recorded, not recording another");
         } catch (SQLException exception) {
             logger.warning("error occured recording payment for bill " + billId + ": " + exception.getMessage());
-            return false;
         }
+        return -1;
+    }
+
+    /**
+     * payment recorded earlier under this idempotency key, -1 if none.
+     */
+    public int findPaymentIdByKey(String idempotencyKey) {
+        int cachedPaymentId = idempotencyCache.get(IDEMPOTENCY_SCOPE, idempotencyKey);
+        if (cachedPaymentId != -1) {
+            return cachedPaymentId;
+        }
+        String selectQuery = "SELECT payment_id FROM payments WHERE idempotency_key = ?";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+            statement.setString(1, idempotencyKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    int paymentId = resultSet.getInt("payment_id");
+                    idempotencyCache.remember(IDEMPOTENCY_SCOPE, idempotencyKey, paymentId);
+                    return paymentId;
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error looking up payment by key " + idempotencyKey + ": " + exception.getMessage());
+        }
+        return -1;
     }
-}
\ No newline at end of file
+}
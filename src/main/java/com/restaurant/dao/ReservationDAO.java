@@ -0,0 +1,210 @@
+package com.restaurant.dao;
+
+import com.restaurant.config.DatabaseConnection;
+import com.restaurant.config.TransactionManager;
+import com.restaurant.model.Reservation;
+import com.restaurant.model.Table;
+import com.restaurant.util.LoggerUtil;
+import com.restaurant.util.ReservationIndex;
+
+import java.sql.*;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Stores future table reservations as time slots per table.
+ * slot times are TIMESTAMPTZ and Instant, so the app and the database agree on them whatever their time zones.
+ * slot lookups are answered from ReservationIndex, which follows every change after it commits.
+ * the reservations table refuses overlapping slots on one table, so two app instances
+ * can never reserve the same slot even when their indexes are a bit behind.
+ */
+public class ReservationDAO {
+    private static final Logger logger = LoggerUtil.grabLogger();
+    private static final ReservationIndex reservationIndex = ReservationIndex.getInstance();
+    private static final String OVERLAPPING_SLOT = "23P01";
+
+    /**
+     * reload the reservation index with all tables and BOOKED reservations inside the horizon.
+     */
+    public void resyncReservationIndex() {
+        List<Table> tables = new ArrayList<>();
+        List<Reservation> reservations = new ArrayList<>();
+        String tablesQuery = "SELECT table_id, capacity FROM tables";
+        String reservationsQuery = "SELECT * FROM reservations " +
+                "WHERE status = 'BOOKED' AND ends_at > NOW() AND starts_at < NOW() + make_interval(days => ?)";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement tablesStatement = connection.prepareStatement(tablesQuery);
+             PreparedStatement reservationsStatement = connection.prepareStatement(reservationsQuery)) {
+
+            try (ResultSet resultSet = tablesStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    tables.add(new Table(resultSet.getInt("table_id"), resultSet.getInt("capacity"), false, null));
+                }
+            }
+            reservationsStatement.setInt(1, reservationIndex.getHorizonDays());
+            try (ResultSet resultSet = reservationsStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    reservations.add(mapReservation(resultSet));
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error loading reservations: " + exception.getMessage());
+            return;
+        }
+        reservationIndex.resync(tables, reservations);
+    }
+
+    private void ensureIndexLoaded() {
+        if (!reservationIndex.isLoaded()) {
+            resyncReservationIndex();
+        }
+    }
+
+    /**
+     * smallest table that fits with this slot free, from the index. null if none.
+     */
+    public Table findFreeTable(int partySize, Instant startsAt, Instant endsAt, Set<Integer> excludedTableIds) {
+        ensureIndexLoaded();
+        return reservationIndex.findFreeTable(partySize, startsAt, endsAt, excludedTableIds);
+    }
+
+    /**
+     * tables that must stay free for a reservation starting within the walk-in window.
+     */
+    public Set<Integer> getTablesHeldForReservations() {
+        ensureIndexLoaded();
+        return reservationIndex.getTablesHeldAt(Instant.now());
+    }
+
+    /**
+     * saves the reservation and returns its id, or -1 when the slot is already taken or saving failed.
+     */
+    public int createReservation(Reservation reservation) {
+        String insertQuery = "INSERT INTO reservations (customer_id, table_id, party_size, starts_at, ends_at) " +
+                "VALUES (?, ?, ?, ?, ?) RETURNING reservation_id";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(insertQuery)) {
+
+            statement.setInt(1, reservation.getCustomerId());
+            statement.setInt(2, reservation.getTableId());
+            statement.setInt(3, reservation.getPartySize());
+            statement.setObject(4, toTimestampTz(reservation.getStartsAt()));
+            statement.setObject(5, toTimestampTz(reservation.getEndsAt()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    reservation.setReservationId(resultSet.getInt("reservation_id"));
+                    TransactionManager.afterCommit(() -> reservationIndex.add(reservation));
+                    return reservation.getReservationId();
+                }
+            }
+        } catch (SQLException exception) {
+            if (OVERLAPPING_SLOT.equals(exception.getSQLState())) {
+                logger.info("table " + reservation.getTableId() + " already reserved at " + reservation.getStartsAt());
+            } else {
+                logger.warning("error saving reservation: " + exception.getMessage());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * sets status of a BOOKED reservation of this customer. returns the changed reservation or null.
+     */
+    public Reservation closeReservation(int reservationId, int customerId, String newStatus) {
+        String updateQuery = "UPDATE reservations SET status = ? " +
+                "WHERE reservation_id = ? AND customer_id = ? AND status = 'BOOKED' RETURNING *";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(updateQuery)) {
+
+            statement.setString(1, newStatus);
+            statement.setInt(2, reservationId);
+            statement.setInt(3, customerId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    Reservation reservation = mapReservation(resultSet);
+                    TransactionManager.afterCommit(() -> reservationIndex.remove(reservation));
+                    return reservation;
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error updating reservation " + reservationId + ": " + exception.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * marks BOOKED reservations NO_SHOW when their guests have not come noShowMinutes after the start,
+     * so their table is no longer held until the slot ends. at most batchLimit per call, locked rows are
+     * skipped like in TableDAO.releaseExpiredBookings. returns the reservations that expired.
+     */
+    public List<Reservation> expireNoShowReservations(int noShowMinutes, int batchLimit) {
+        List<Reservation> expiredReservations = new ArrayList<>();
+        String expireQuery = "WITH expired AS (" +
+                "SELECT reservation_id FROM reservations " +
+                "WHERE status = 'BOOKED' AND starts_at < NOW() - make_interval(mins => ?) " +
+                "ORDER BY starts_at LIMIT ? " +
+                "FOR UPDATE SKIP LOCKED" +
+                ") " +
+                "UPDATE reservations r SET status = 'NO_SHOW' " +
+                "FROM expired e WHERE r.reservation_id = e.reservation_id " +
+                "RETURNING r.*";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(expireQuery)) {
+
+            statement.setInt(1, noShowMinutes);
+            statement.setInt(2, batchLimit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    expiredReservations.add(mapReservation(resultSet));
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error expiring no-show reservations: " + exception.getMessage());
+        }
+        TransactionManager.afterCommit(() -> expiredReservations.forEach(reservationIndex::remove));
+        return expiredReservations;
+    }
+
+    /**
+     * BOOKED reservations of the customer that are not over yet, soonest first.
+     */
+    public List<Reservation> getUpcomingReservations(int customerId) {
+        List<Reservation> reservations = new ArrayList<>();
+        String selectQuery = "SELECT * FROM reservations " +
+                "WHERE customer_id = ? AND status = 'BOOKED' AND ends_at > NOW() ORDER BY starts_at";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+            statement.setInt(1, customerId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    reservations.add(mapReservation(resultSet));
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error reading reservations of customer " + customerId + ": " + exception.getMessage());
+        }
+        return reservations;
+    }
+
+    private Reservation mapReservation(ResultSet resultSet) throws SQLException {
+        return new Reservation(
+                resultSet.getInt("reservation_id"),
+                resultSet.getInt("customer_id"),
+                resultSet.getInt("table_id"),
+                resultSet.getInt("party_size"),
+                resultSet.getObject("starts_at", OffsetDateTime.class).toInstant(),
+                resultSet.getObject("ends_at", OffsetDateTime.class).toInstant(),
+                resultSet.getString("status")
+        );
+    }
+
+    private static OffsetDateTime toTimestampTz(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,139 @@
+package com.restaurant.dao;
+
+import com.restaurant.config.DatabaseConnection;
+import com.restaurant.util.LoggerUtil;
+
+import java.sql.*;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the running tab of each seated customer: the total so far and one line per dish and price.
+ * items are added to the tab by the same transaction that adds them to the order, so reading
+ * what a customer owes is one row however many rounds they ordered.
+ * a tab closes when it is billed (BillDAO) or its table is freed.
+ */
+public class TabDAO {
+    private static final Logger logger = LoggerUtil.grabLogger();
+
+    /**
+     * adds the just inserted items of the order to the open tab of its customer and table, opening the tab
+     * on the first order. one statement takes the name and price saved on each item, bumps the tab total
+     * and upserts the tab lines.
+     * call it in the transaction that inserts the order items. an order without a customer or table
+     * has no tab and is skipped. false only on error.
+     */
+    public boolean addToTab(int orderId, List<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return true;
+        }
+        String tabQuery = "WITH visit AS (SELECT customer_id, table_id FROM orders " +
+                "WHERE order_id = ? AND customer_id IS NOT NULL AND table_id IS NOT NULL), " +
+                "added AS (SELECT menu_id, item_name, unit_price AS price, SUM(quantity) AS quantity " +
+                "FROM order_items WHERE order_id = ? AND item_id = ANY(CAST(? AS INT[])) " +
+                "GROUP BY menu_id, item_name, unit_price), " +
+                "tab AS (INSERT INTO tabs (customer_id, table_id, total_amount, last_order_id) " +
+                "SELECT v.customer_id, v.table_id, (SELECT COALESCE(SUM(quantity * price), 0) FROM added), ? FROM visit v " +
+                "ON CONFLICT (customer_id, table_id) WHERE is_open DO UPDATE " +
+                "SET total_amount = tabs.total_amount + EXCLUDED.total_amount, " +
+                "last_order_id = GREATEST(tabs.last_order_id, EXCLUDED.last_order_id) " +
+                "RETURNING tab_id) " +
+                "INSERT INTO tab_lines (tab_id, menu_id, item_name, price, quantity, line_total) " +
+                "SELECT t.tab_id, a.menu_id, a.item_name, a.price, a.quantity, a.quantity * a.price FROM tab t, added a " +
+                "ON CONFLICT (tab_id, menu_id, price) DO UPDATE " +
+                "SET quantity = tab_lines.quantity + EXCLUDED.quantity, line_total = tab_lines.line_total + EXCLUDED.line_total";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(tabQuery)) {
+
+            statement.setInt(1, orderId);
+            statement.setInt(2, orderId);
+            statement.setArray(3, connection.createArrayOf("integer", itemIds.toArray()));
+            statement.setInt(4, orderId);
+            statement.executeUpdate();
+            return true;
+        } catch (SQLException exception) {
+            logger.warning("could not add order " + orderId + " to its tab: " + exception.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * what the customer ordered at this table since their last bill, in paise. 0 when they have no open tab.
+     */
+    public long getOpenTabTotalPaise(int customerId, int tableId) {
+        String selectQuery = "SELECT CAST(total_amount * 100 AS BIGINT) AS total_paise FROM tabs " +
+                "WHERE customer_id = ? AND table_id = ? AND is_open";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+            statement.setInt(1, customerId);
+            statement.setInt(2, tableId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getLong("total_paise");
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error reading tab of customer " + customerId + ": " + exception.getMessage());
+        }
+        return 0;
+    }
+
+    /**
+     * what the customer has on an open tab at this table for orders placed after the given one,
+     * so not covered by a bill made for that order, in paise. -1 on error.
+     */
+    public long getTotalOrderedAfterPaise(int customerId, int tableId, int orderId) {
+        String selectQuery = "SELECT COALESCE(SUM(CAST(total_amount * 100 AS BIGINT)), 0) AS total_paise FROM tabs " +
+                "WHERE customer_id = ? AND table_id = ? AND is_open AND total_amount > 0 " +
+                "AND (last_order_id IS NULL OR last_order_id > ?)";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+            statement.setInt(1, customerId);
+            statement.setInt(2, tableId);
+            statement.setInt(3, orderId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong("total_paise") : 0;
+            }
+        } catch (SQLException exception) {
+            logger.warning("error reading unbilled tab of customer " + customerId + ": " + exception.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * closes the customer's open tab at this table once their bill is paid. other guests' tabs stay open.
+     */
+    public boolean closeTab(int customerId, int tableId) {
+        String updateQuery = "UPDATE tabs SET is_open = FALSE WHERE customer_id = ? AND table_id = ? AND is_open";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(updateQuery)) {
+
+            statement.setInt(1, customerId);
+            statement.setInt(2, tableId);
+            statement.executeUpdate();
+            return true;
+        } catch (SQLException exception) {
+            logger.warning("error closing tab of customer " + customerId + ": " + exception.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * closes the open tabs at a table once it is freed, so the next guests start a new one.
+     */
+    public boolean closeTabsAtTable(int tableId) {
+        String updateQuery = "UPDATE tabs SET is_open = FALSE WHERE table_id = ? AND is_open";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(updateQuery)) {
+
+            statement.setInt(1, tableId);
+            statement.executeUpdate();
+            return true;
+        } catch (SQLException exception) {
+            logger.warning("error closing tabs at table " + tableId + ": " + exception.getMessage());
+            return false;
+        }
+    }
+}
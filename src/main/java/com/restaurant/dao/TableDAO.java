@@ -1,23 +1,70 @@
 package com.restaurant.dao;
 
 import com.restaurant.config.DatabaseConnection;
+import com.restaurant.config.TransactionManager;
 import com.restaurant.model.Table;
 import com.restaurant.service.interfaces.TableServiceInterface;
 import com.restaurant.util.LoggerUtil;
+import com.restaurant.util.TableAvailabilityIndex;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 /**
  * Manages restaurant table operations including booking, availability checks, and capacity management.
+ * free-table lookups are answered from TableAvailabilityIndex, database is asked only when the index
+ * has nothing that fits. the index marks a table booked as soon as it is claimed (undone on rollback)
+ * and free only after the freeing transaction commits, so a hint never points at a table still in use.
+ * the index only knows what this process did, so the vacant list used for display and seating reads the database.
  */
 public class TableDAO implements TableServiceInterface {
     private static final Logger logger = LoggerUtil.grabLogger();
+    private static final TableAvailabilityIndex availabilityIndex = TableAvailabilityIndex.getInstance();
+    private static final int MAX_HINT_ATTEMPTS = 3;
+
+    /**
+     * reload the availability index from tables. kept as it is when database can not be read.
+     */
+    public void resyncAvailabilityIndex() {
+        List<Table> tables = new ArrayList<>();
+        String selectQuery = "SELECT table_id, capacity, is_booked FROM tables";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                tables.add(new Table(resultSet.getInt("table_id"),
+                        resultSet.getInt("capacity"),
+                        resultSet.getBoolean("is_booked"),
+                        null));
+            }
+        } catch (SQLException exception) {
+            logger.warning("error loading table availability: " + exception.getMessage());
+            return;
+        }
+        availabilityIndex.resync(tables);
+    }
+
+    private void ensureIndexLoaded() {
+        if (!availabilityIndex.isLoaded()) {
+            resyncAvailabilityIndex();
+        }
+    }
 
     @Override
     public Table getAvailableTable(int requiredSeats) {
+        ensureIndexLoaded();
+        Table hintedTable = availabilityIndex.peekBestFit(requiredSeats);
+        if (hintedTable != null) {
+            return hintedTable;
+        }
+
         String selectQuery = "SELECT * FROM tables " +
                 "WHERE is_booked = FALSE AND capacity >= ? " +
                 "ORDER BY capacity ASC LIMIT 1";
@@ -41,6 +88,135 @@ public class TableDAO implements TableServiceInterface {
         return null;
     }
 
+    /**
+     * books the smallest free table that fits.
+     * tries the tables the availability index suggests first, each with a conditional UPDATE,
+     * and only when the index has nothing that fits asks database to find one.
+     */
+    @Override
+    public Table claimAvailableTable(int requiredSeats) {
+        return claimAvailableTable(requiredSeats, Set.of());
+    }
+
+    /**
+     * same as claimAvailableTable but never books one of the excluded tables,
+     * for example tables held for an upcoming reservation.
+     */
+    public Table claimAvailableTable(int requiredSeats, Set<Integer> excludedTableIds) {
+        ensureIndexLoaded();
+        for (int attempt = 0; attempt < MAX_HINT_ATTEMPTS; attempt++) {
+            Table hintedTable = availabilityIndex.takeBestFit(requiredSeats, excludedTableIds);
+            if (hintedTable == null) {
+                break;
+            }
+            Table claimedTable = claimTable(hintedTable.getTableId());
+            if (claimedTable != null) {
+                return claimedTable;
+            }
+        }
+
+        Table claimedTable = claimAnyTable(requiredSeats, excludedTableIds);
+        if (claimedTable != null) {
+            availabilityIndex.markBooked(claimedTable.getTableId());
+            TransactionManager.afterRollback(() -> availabilityIndex.markFree(claimedTable.getTableId()));
+        }
+        return claimedTable;
+    }
+
+    /**
+     * books this exact table only if it is still free. null means somebody else got it first.
+     */
+    public Table claimTable(int tableId) {
+        String claimQuery = "UPDATE tables SET is_booked = TRUE, booking_time = NOW() " +
+                "WHERE table_id = ? AND is_booked = FALSE " +
+                "RETURNING table_id, capacity, is_booked, booking_time";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(claimQuery)) {
+
+            statement.setInt(1, tableId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                availabilityIndex.markBooked(tableId);
+                if (resultSet.next()) {
+                    TransactionManager.afterRollback(() -> availabilityIndex.markFree(tableId));
+                    return new Table(
+                            resultSet.getInt("table_id"),
+                            resultSet.getInt("capacity"),
+                            resultSet.getBoolean("is_booked"),
+                            resultSet.getString("booking_time")
+                    );
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error occured claiming table " + tableId + ": " + exception.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * finds the smallest free table that fits and books it in the same statement.
+     * rows locked by other bookings are skipped, so parallel bookings get different tables
+     * instead of waiting on each other or booking the same one.
+     */
+    private Table claimAnyTable(int requiredSeats, Set<Integer> excludedTableIds) {
+        String claimQuery = "UPDATE tables SET is_booked = TRUE, booking_time = NOW() " +
+                "WHERE table_id = (" +
+                "SELECT table_id FROM tables " +
+                "WHERE is_booked = FALSE AND capacity >= ? AND NOT (table_id = ANY(?)) " +
+                "ORDER BY capacity ASC, table_id ASC LIMIT 1 " +
+                "FOR UPDATE SKIP LOCKED) " +
+                "AND is_booked = FALSE " +
+                "RETURNING table_id, capacity, is_booked, booking_time";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(claimQuery)) {
+
+            statement.setInt(1, requiredSeats);
+            statement.setArray(2, connection.createArrayOf("integer", excludedTableIds.toArray()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return new Table(
+                            resultSet.getInt("table_id"),
+                            resultSet.getInt("capacity"),
+                            resultSet.getBoolean("is_booked"),
+                            resultSet.getString("booking_time")
+                    );
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error occured claiming table for " + requiredSeats + " seats: " + exception.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * books all given tables that are still free in one statement. returns ids that were really booked.
+     */
+    public Set<Integer> claimTables(List<Integer> tableIds) {
+        Set<Integer> claimedTableIds = new HashSet<>();
+        if (tableIds.isEmpty()) {
+            return claimedTableIds;
+        }
+        String updateQuery = "UPDATE tables SET is_booked = TRUE, booking_time = NOW() " +
+                "WHERE table_id = ANY(?) AND is_booked = FALSE RETURNING table_id";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(updateQuery)) {
+
+            statement.setArray(1, connection.createArrayOf("integer", tableIds.toArray()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    claimedTableIds.add(resultSet.getInt("table_id"));
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error occured claiming tables " + tableIds + ": " + exception.getMessage());
+            return claimedTableIds;
+        }
+        for (Integer tableId : tableIds) {
+            availabilityIndex.markBooked(tableId);
+        }
+        TransactionManager.afterRollback(() -> claimedTableIds.forEach(availabilityIndex::markFree));
+        return claimedTableIds;
+    }
+
     @Override
     public boolean assignTable(int tableId) {
         String updateQuery = "UPDATE tables SET is_booked = TRUE, booking_time = NOW() WHERE table_id = ?";
@@ -48,7 +224,13 @@ public class TableDAO implements TableServiceInterface {
              PreparedStatement statement = connection.prepareStatement(updateQuery)) {
 
             statement.setInt(1, tableId);
-            return statement.executeUpdate() > 0;
+            if (statement.executeUpdate() == 0) {
+                return false;
+            }
+            if (availabilityIndex.markBooked(tableId)) {
+                TransactionManager.afterRollback(() -> availabilityIndex.markFree(tableId));
+            }
+            return true;
         } catch (SQLException exception) {
             logger.warning("error occured assigning table " + tableId + ": " + exception.getMessage());
             return false;
@@ -62,13 +244,145 @@ public class TableDAO implements TableServiceInterface {
              PreparedStatement statement = connection.prepareStatement(updateQuery)) {
 
             statement.setInt(1, tableId);
-            return statement.executeUpdate() > 0;
+            if (statement.executeUpdate() == 0) {
+                return false;
+            }
+            TransactionManager.afterCommit(() -> availabilityIndex.markFree(tableId));
+            return true;
         } catch (SQLException exception) {
             logger.warning("error freeing table " + tableId + ": " + exception.getMessage());
             return false;
         }
     }
 
+    /**
+     * frees, in one statement, booked tables whose booking is older than the no-show window
+     * and nobody checked in, unlinks their customers and closes their tabs, so the next party
+     * does not inherit what a no-show ordered. at most batchLimit tables per call.
+     * locked rows are skipped so several app instances can sweep at the same time.
+     * returns the freed table ids, each with the ids of the customers unlinked from it.
+     */
+    public Map<Integer, List<Integer>> releaseExpiredBookings(int noShowMinutes, int batchLimit) {
+        Map<Integer, List<Integer>> releasedCustomersByTable = new LinkedHashMap<>();
+        String releaseQuery = "WITH expired AS (" +
+                "SELECT t.table_id FROM tables t " +
+                "WHERE t.is_booked = TRUE " +
+                "AND t.booking_time < NOW() - make_interval(mins => ?) " +
+                "AND NOT EXISTS (SELECT 1 FROM customers c WHERE c.table_id = t.table_id AND c.is_checked_in = TRUE) " +
+                "ORDER BY t.booking_time LIMIT ? " +
+                "FOR UPDATE OF t SKIP LOCKED" +
+                "), freed AS (" +
+                "UPDATE tables t SET is_booked = FALSE, booking_time = NULL " +
+                "FROM expired e WHERE t.table_id = e.table_id " +
+                "RETURNING t.table_id" +
+                "), cleared AS (" +
+                "UPDATE customers c SET table_id = NULL, is_checked_in = FALSE " +
+                "FROM freed f WHERE c.table_id = f.table_id AND c.is_checked_in = FALSE " +
+                "RETURNING c.customer_id, f.table_id" +
+                "), closed AS (" +
+                "UPDATE tabs tb SET is_open = FALSE " +
+                "FROM freed f WHERE tb.table_id = f.table_id AND tb.is_open " +
+                "RETURNING tb.tab_id" +
+                ") " +
+                "SELECT f.table_id, c.customer_id FROM freed f LEFT JOIN cleared c ON c.table_id = f.table_id";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(releaseQuery)) {
+
+            statement.setInt(1, noShowMinutes);
+            statement.setInt(2, batchLimit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    List<Integer> customerIds = releasedCustomersByTable.computeIfAbsent(resultSet.getInt("table_id"),
+                            tableId -> new ArrayList<>());
+                    int customerId = resultSet.getInt("customer_id");
+                    if (!resultSet.wasNull()) {
+                        customerIds.add(customerId);
+                    }
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("error releasing expired bookings: " + exception.getMessage());
+        }
+        TransactionManager.afterCommit(() -> releasedCustomersByTable.keySet().forEach(availabilityIndex::markFree));
+        return releasedCustomersByTable;
+    }
+
+    /**
+     * unlinks the customer from the table and frees it in one statement, only while they still sit there,
+     * so paying an old bill late does not evict the party seated after them.
+     * returns 1 when the table was freed, 0 when the customer no longer sits at it, -1 on error.
+     */
+    public int releaseTableOf(int tableId, int customerId) {
+        String releaseQuery = "WITH cleared AS (" +
+                "UPDATE customers SET table_id = NULL, is_checked_in = FALSE " +
+                "WHERE customer_id = ? AND table_id = ? " +
+                "RETURNING table_id" +
+                "), freed AS (" +
+                "UPDATE tables t SET is_booked = FALSE, booking_time = NULL " +
+                "FROM cleared c WHERE t.table_id = c.table_id " +
+                "RETURNING t.table_id" +
+                ") " +
+                "SELECT table_id FROM freed";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(releaseQuery)) {
+
+            statement.setInt(1, customerId);
+            statement.setInt(2, tableId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return 0;
+                }
+            }
+            TransactionManager.afterCommit(() -> availabilityIndex.markFree(tableId));
+            return 1;
+        } catch (SQLException exception) {
+            logger.warning("error releasing table " + tableId + " of customer " + customerId + ": " + exception.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * frees one no-show booking in one statement, only while the table is still booked by this customer
+     * and nobody at it has checked in, unlinks the customer and closes their tab.
+     * false when that no longer holds or on error.
+     */
+    public boolean releaseNoShowTable(int tableId, int customerId) {
+        String releaseQuery = "WITH freed AS (" +
+                "UPDATE tables t SET is_booked = FALSE, booking_time = NULL " +
+                "WHERE t.table_id = ? AND t.is_booked = TRUE " +
+                "AND EXISTS (SELECT 1 FROM customers c WHERE c.customer_id = ? AND c.table_id = t.table_id) " +
+                "AND NOT EXISTS (SELECT 1 FROM customers c WHERE c.table_id = t.table_id AND c.is_checked_in = TRUE) " +
+                "RETURNING t.table_id" +
+                "), cleared AS (" +
+                "UPDATE customers c SET table_id = NULL, is_checked_in = FALSE " +
+                "FROM freed f WHERE c.customer_id = ? AND c.table_id = f.table_id " +
+                "RETURNING c.customer_id" +
+                "), closed AS (" +
+                "UPDATE tabs tb SET is_open = FALSE " +
+                "FROM freed f WHERE tb.customer_id = ? AND tb.table_id = f.table_id AND tb.is_open " +
+                "RETURNING tb.tab_id" +
+                ") " +
+                "SELECT table_id FROM freed";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(releaseQuery)) {
+
+            statement.setInt(1, tableId);
+            statement.setInt(2, customerId);
+            statement.setInt(3, customerId);
+            statement.setInt(4, customerId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return false;
+                }
+            }
+            TransactionManager.afterCommit(() -> availabilityIndex.markFree(tableId));
+            return true;
+        } catch (SQLException exception) {
+            logger.warning("error releasing no-show table " + tableId + ": " + exception.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public List<Table> getAllTables() {
         List<Table> tables = new ArrayList<>();
@@ -89,6 +403,10 @@ public class TableDAO implements TableServiceInterface {
         return tables;
     }
 
+    /**
+     * free tables from the database, through the partial index on free tables. not taken from the
+     * availability index, which misses tables freed by another instance until the next resync.
+     */
     @Override
     public List<Table> getVacantTables() {
         List<Table> tables = new ArrayList<>();
@@ -108,4 +426,4 @@ public class TableDAO implements TableServiceInterface {
         }
         return tables;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package com.restaurant.dao;
+
+import com.restaurant.config.DatabaseConnection;
+import com.restaurant.model.Customer;
+import com.restaurant.model.WaitingParty;
+import com.restaurant.util.LoggerUtil;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Persists the waiting line so it survives restarts and is shared by every app instance.
+ */
+public class WaitlistDAO {
+    private static final Logger logger = LoggerUtil.grabLogger();
+
+    public boolean enqueue(int customerId, int partySize) {
+        String insertQuery = "INSERT INTO waitlist (customer_id, party_size) VALUES (?, ?) ON CONFLICT (customer_id) DO NOTHING";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(insertQuery)) {
+
+            statement.setInt(1, customerId);
+            statement.setInt(2, partySize);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException exception) {
+            logger.warning("cannot add customer " + customerId + " to waitlist: " + exception.getMessage());
+            return false;
+        }
+    }
+
+    public List<WaitingParty> getAllWaiting() {
+        List<WaitingParty> parties = new ArrayList<>();
+        String selectQuery = "SELECT w.customer_id, w.party_size, w.enqueued_at, c.user_id, c.name " +
+                "FROM waitlist w " +
+                "JOIN customers c ON w.customer_id = c.customer_id " +
+                "ORDER BY w.waitlist_id";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                Customer customer = new Customer(resultSet.getInt("customer_id"),
+                        resultSet.getInt("user_id"),
+                        resultSet.getString("name"));
+                customer.setRequiredSeats(resultSet.getInt("party_size"));
+                parties.add(new WaitingParty(customer,
+                        resultSet.getInt("party_size"),
+                        resultSet.getTimestamp("enqueued_at").getTime()));
+            }
+        } catch (SQLException exception) {
+            logger.warning("cannot read waitlist: " + exception.getMessage());
+        }
+        return parties;
+    }
+
+    /**
+     * locks waitlist rows of these customers for the current transaction and returns the ones still waiting.
+     * rows another instance is seating right now are skipped.
+     */
+    public Set<Integer> lockWaiting(Collection<Integer> customerIds) {
+        Set<Integer> waitingCustomerIds = new HashSet<>();
+        if (customerIds.isEmpty()) {
+            return waitingCustomerIds;
+        }
+        String selectQuery = "SELECT customer_id FROM waitlist WHERE customer_id = ANY(?) FOR UPDATE SKIP LOCKED";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+
+            statement.setArray(1, connection.createArrayOf("integer", customerIds.toArray()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    waitingCustomerIds.add(resultSet.getInt("customer_id"));
+                }
+            }
+        } catch (SQLException exception) {
+            logger.warning("cannot lock waitlist entries " + customerIds + ": " + exception.getMessage());
+        }
+        return waitingCustomerIds;
+    }
+
+    public int removeAll(Collection<Integer> customerIds) {
+        if (customerIds.isEmpty()) {
+            return 0;
+        }
+        String deleteQuery = "DELETE FROM waitlist WHERE customer_id = ANY(?)";
+        try (Connection connection = DatabaseConnection.fetchConnection();
+             PreparedStatement statement = connection.prepareStatement(deleteQuery)) {
+
+            statement.setArray(1, connection.createArrayOf("integer", customerIds.toArray()));
+            return statement.executeUpdate();
+        } catch (SQLException exception) {
+            logger.warning("cannot remove customers " + customerIds + " from waitlist: " + exception.getMessage());
+            return -1;
+        }
+    }
+}
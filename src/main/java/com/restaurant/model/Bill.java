@@ -0,0 +1,59 @@
+package com.restaurant.model;
+
+import com.restaurant.util.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * bill header with its lines, as BillDAO builds them in one query. amounts are in paise.
+ */
+public class Bill {
+    private final int billId;
+    private final int orderId;
+    private final long totalPaise;
+    private final boolean paid;
+    private final List<BillLine> lines = new ArrayList<>();
+
+    public Bill(int billId, int orderId, long totalPaise, boolean paid) {
+        this.billId = billId;
+        this.orderId = orderId;
+        this.totalPaise = totalPaise;
+        this.paid = paid;
+    }
+
+    public int getBillId() {
+        return billId;
+    }
+
+    public int getOrderId() {
+        return orderId;
+    }
+
+    public long getTotalPaise() {
+        return totalPaise;
+    }
+
+    /**
+     * lines added up again, should always equal getTotalPaise.
+     */
+    public long getLinesTotalPaise() {
+        long linesTotalPaise = 0;
+        for (BillLine line : lines) {
+            linesTotalPaise = Money.add(linesTotalPaise, line.getLineTotalPaise());
+        }
+        return linesTotalPaise;
+    }
+
+    public boolean isPaid() {
+        return paid;
+    }
+
+    public List<BillLine> getLines() {
+        return lines;
+    }
+
+    public void addLine(BillLine line) {
+        lines.add(line);
+    }
+}
@@ -0,0 +1,40 @@
+package com.restaurant.model;
+
+/**
+ * one dish on a bill with everything ordered of it added up. amounts are in paise.
+ */
+public class BillLine {
+    private final int menuId;
+    private final String itemName;
+    private final long pricePaise;
+    private final int quantity;
+    private final long lineTotalPaise;
+
+    public BillLine(int menuId, String itemName, long pricePaise, int quantity, long lineTotalPaise) {
+        this.menuId = menuId;
+        this.itemName = itemName;
+        this.pricePaise = pricePaise;
+        this.quantity = quantity;
+        this.lineTotalPaise = lineTotalPaise;
+    }
+
+    public int getMenuId() {
+        return menuId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public long getPricePaise() {
+        return pricePaise;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public long getLineTotalPaise() {
+        return lineTotalPaise;
+    }
+}
@@ -0,0 +1,28 @@
+package com.restaurant.model;
+
+/**
+ * where one order item is in the kitchen. the chef may skip COOKING and mark it READY straight away.
+ * stored in postgres as the item_status enum type.
+ */
+public enum ItemStatus {
+    PENDING,
+    COOKING,
+    READY,
+    SERVED;
+
+    private static final StatusTransitions<ItemStatus> TRANSITIONS = new StatusTransitions<>(ItemStatus.class)
+            .allow(COOKING, PENDING)
+            .allow(READY, PENDING, COOKING)
+            .allow(SERVED, READY);
+
+    public boolean canMoveTo(ItemStatus next) {
+        return TRANSITIONS.canMove(this, next);
+    }
+
+    /**
+     * statuses an item has to be in to move to this one, as names to bind in SQL. do not modify.
+     */
+    public String[] previousNames() {
+        return TRANSITIONS.previousNames(this);
+    }
+}
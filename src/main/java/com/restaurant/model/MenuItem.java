@@ -1,18 +1,18 @@
 package com.restaurant.model;
 
 /**
- * simple dish or drink item of menu with price and availability.
+ * simple dish or drink item of menu with price (in paise) and availability.
  */
 public class MenuItem {
     private int menuId;
     private String itemName;
-    private double price;
+    private long pricePaise;
     private boolean available;
 
-    public MenuItem(int menuId, String itemName, double price, boolean available) {
+    public MenuItem(int menuId, String itemName, long pricePaise, boolean available) {
         this.menuId = menuId;
         this.itemName = itemName;
-        this.price = price;
+        this.pricePaise = pricePaise;
         this.available = available;
     }
 
@@ -24,8 +24,8 @@ public class MenuItem {
         return itemName;
     }
 
-    public double getPrice() {
-        return price;
+    public long getPricePaise() {
+        return pricePaise;
     }
 
     public boolean isAvailable() {
@@ -1,17 +1,22 @@
 package com.restaurant.model;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * one customer order that has status like pending ready or served.
+ * items are filled only by queries that load them together with the order.
  */
 public class Order {
     private int orderId;
     private int customerId;
     private int tableId;
     private int waiterId;
-    private String status;
+    private OrderStatus status;
     private String orderTime;
+    private final List<OrderItem> items = new ArrayList<>();
 
-    public Order(int orderId, int customerId, int tableId, int waiterId, String status, String orderTime) {
+    public Order(int orderId, int customerId, int tableId, int waiterId, OrderStatus status, String orderTime) {
         this.orderId = orderId;
         this.customerId = customerId;
         this.tableId = tableId;
@@ -36,11 +41,19 @@ public class Order {
         return waiterId;
     }
 
-    public String getStatus() {
+    public OrderStatus getStatus() {
         return status;
     }
 
     public String getOrderTime() {
         return orderTime;
     }
+
+    public List<OrderItem> getItems() {
+        return items;
+    }
+
+    public void addItem(OrderItem item) {
+        items.add(item);
+    }
 }
@@ -8,11 +8,11 @@ public class OrderItem {
     private int orderId;
     private int menuId;
     private int quantity;
-    private String status;
+    private ItemStatus status;
     private String itemName;
-    private double price;
+    private long pricePaise;
 
-    public OrderItem(int itemId, int orderId, int menuId, int quantity, String status) {
+    public OrderItem(int itemId, int orderId, int menuId, int quantity, ItemStatus status) {
         this.itemId = itemId;
         this.orderId = orderId;
         this.menuId = menuId;
@@ -36,7 +36,7 @@ public class OrderItem {
         return quantity;
     }
 
-    public String getStatus() {
+    public ItemStatus getStatus() {
         return status;
     }
 
@@ -48,11 +48,11 @@ public class OrderItem {
         this.itemName = itemName;
     }
 
-    public double getPrice() {
-        return price;
+    public long getPricePaise() {
+        return pricePaise;
     }
 
-    public void setPrice(double price) {
-        this.price = price;
+    public void setPricePaise(long pricePaise) {
+        this.pricePaise = pricePaise;
     }
 }
@@ -0,0 +1,22 @@
+package com.restaurant.model;
+
+/**
+ * one line of a cart before the order is saved: which menu item and how many.
+ */
+public class OrderLine {
+    private final int menuId;
+    private final int quantity;
+
+    public OrderLine(int menuId, int quantity) {
+        this.menuId = menuId;
+        this.quantity = quantity;
+    }
+
+    public int getMenuId() {
+        return menuId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+}
@@ -0,0 +1,28 @@
+package com.restaurant.model;
+
+/**
+ * where an order is in its life: cooked (PENDING to READY), brought to the table (SERVED), paid (COMPLETED).
+ * stored in postgres as the order_status enum type.
+ */
+public enum OrderStatus {
+    PENDING,
+    READY,
+    SERVED,
+    COMPLETED;
+
+    private static final StatusTransitions<OrderStatus> TRANSITIONS = new StatusTransitions<>(OrderStatus.class)
+            .allow(READY, PENDING)
+            .allow(SERVED, READY)
+            .allow(COMPLETED, SERVED);
+
+    public boolean canMoveTo(OrderStatus next) {
+        return TRANSITIONS.canMove(this, next);
+    }
+
+    /**
+     * statuses an order has to be in to move to this one, as names to bind in SQL. do not modify.
+     */
+    public String[] previousNames() {
+        return TRANSITIONS.previousNames(this);
+    }
+}
@@ -0,0 +1,65 @@
+package com.restaurant.model;
+
+import java.time.Instant;
+
+/**
+ * table booked for a time slot later, not for right now.
+ * status is BOOKED until the guest is seated (SEATED), it is called off (CANCELLED)
+ * or the guest has not come by the end of the no-show window after its start (NO_SHOW).
+ */
+public class Reservation {
+    private int reservationId;
+    private int customerId;
+    private int tableId;
+    private int partySize;
+    private Instant startsAt;
+    private Instant endsAt;
+    private String status;
+
+    public Reservation(int reservationId, int customerId, int tableId, int partySize,
+                       Instant startsAt, Instant endsAt, String status) {
+        this.reservationId = reservationId;
+        this.customerId = customerId;
+        this.tableId = tableId;
+        this.partySize = partySize;
+        this.startsAt = startsAt;
+        this.endsAt = endsAt;
+        this.status = status;
+    }
+
+    public int getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(int reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public int getTableId() {
+        return tableId;
+    }
+
+    public int getPartySize() {
+        return partySize;
+    }
+
+    public Instant getStartsAt() {
+        return startsAt;
+    }
+
+    public Instant getEndsAt() {
+        return endsAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
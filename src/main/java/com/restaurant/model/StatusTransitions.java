@@ -0,0 +1,46 @@
+package com.restaurant.model;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * the state machine of a status enum: which statuses may come right before each one.
+ * OrderStatus and ItemStatus each build one in their static init and only read it afterwards.
+ */
+final class StatusTransitions<S extends Enum<S>> {
+    private final Map<S, Set<S>> previousStatuses;
+    private final Map<S, String[]> previousNames;
+
+    StatusTransitions(Class<S> statusType) {
+        previousStatuses = new EnumMap<>(statusType);
+        previousNames = new EnumMap<>(statusType);
+        for (S status : statusType.getEnumConstants()) {
+            previousStatuses.put(status, EnumSet.noneOf(statusType));
+            previousNames.put(status, new String[0]);
+        }
+    }
+
+    /**
+     * status may be reached from any of previous. a status never allowed has no way in.
+     */
+    @SafeVarargs
+    final StatusTransitions<S> allow(S status, S... previous) {
+        String[] names = new String[previous.length];
+        for (int i = 0; i < previous.length; i++) {
+            previousStatuses.get(status).add(previous[i]);
+            names[i] = previous[i].name();
+        }
+        previousNames.put(status, names);
+        return this;
+    }
+
+    boolean canMove(S from, S to) {
+        return previousStatuses.get(to).contains(from);
+    }
+
+    String[] previousNames(S status) {
+        return previousNames.get(status);
+    }
+}
@@ -0,0 +1,28 @@
+package com.restaurant.model;
+
+/**
+ * customer standing in waiting line with how many seats they need and since when they wait.
+ */
+public class WaitingParty {
+    private final Customer customer;
+    private final int seats;
+    private final long enqueuedAtMillis;
+
+    public WaitingParty(Customer customer, int seats, long enqueuedAtMillis) {
+        this.customer = customer;
+        this.seats = seats;
+        this.enqueuedAtMillis = enqueuedAtMillis;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public long getEnqueuedAtMillis() {
+        return enqueuedAtMillis;
+    }
+}
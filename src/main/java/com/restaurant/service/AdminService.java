@@ -22,12 +22,12 @@ public class AdminService {
         return menuDataAccessObject.getAllMenuItems();
     }
 
-    public boolean addMenuDish(String name, double price) {
-        return   menuDataAccessObject.addMenuItem(name, price);
+    public boolean addMenuDish(String name, long pricePaise) {
+        return   menuDataAccessObject.addMenuItem(name, pricePaise);
     }
 
-    public boolean changeDishPrice(int menuId, double price) {
-        return  menuDataAccessObject.updatePrice(menuId, price);
+    public boolean changeDishPrice(int menuId, long pricePaise) {
+        return  menuDataAccessObject.updatePrice(menuId, pricePaise);
     }
 
     public boolean deleteDish(int menuId) {
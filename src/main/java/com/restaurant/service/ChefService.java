@@ -4,6 +4,7 @@ import com.restaurant.dao.OrderDAO;
 import com.restaurant.dao.OrderItemDAO;
 import com.restaurant.model.Order;
 import com.restaurant.model.OrderItem;
+import com.restaurant.model.OrderStatus;
 import com.restaurant.util.LoggerUtil;
 
 import java.util.List;
@@ -20,25 +21,46 @@ public class ChefService {
     private final OrderItemDAO orderItemDataAccessLayer = new OrderItemDAO();
 
     public List<Order> getPendingOrders() {
-        List<Order> pendingOrdersListForKitchen = orderDataAccessLayer.getOrdersByStatus("PENDING");
+        List<Order> pendingOrdersListForKitchen = orderDataAccessLayer.getOrdersByStatus(OrderStatus.PENDING);
         return pendingOrdersListForKitchen;
     }
 
+    /**
+     * kitchen board: pending orders with their items, loaded in one query.
+     */
+    public List<Order> getPendingOrdersWithItems() {
+        return orderDataAccessLayer.getOrdersWithItemsByStatus(OrderStatus.PENDING);
+    }
+
     public List<OrderItem> getItemsForOrder(int orderId) {
         List<OrderItem> orderItemsListForSpecificOrder = orderItemDataAccessLayer.getItemsByOrder(orderId);
         return orderItemsListForSpecificOrder;
     }
 
+    /**
+     * item is cooked. when it was the last one of its order, the order becomes READY by itself.
+     */
     public boolean markOrderItemCompleted(int itemId) {
-        boolean itemCompletionUpdateResult = orderItemDataAccessLayer.updateItemStatus(itemId, "COMPLETED");
-        if (itemCompletionUpdateResult) {
-            logger.info("order item " + itemId + " marked completed by chef");
+        int itemsRemainingOnOrder = orderItemDataAccessLayer.completeItem(itemId);
+        if (itemsRemainingOnOrder < 0) {
+            return false;
         }
-        return itemCompletionUpdateResult;
+        logger.info("order item " + itemId + " marked ready by chef, " + itemsRemainingOnOrder + " left on its order");
+        return true;
+    }
+
+    /**
+     * items of this order still to cook, read from orders.items_remaining by primary key.
+     */
+    public int getItemsRemaining(int orderId) {
+        return orderDataAccessLayer.getItemsRemaining(orderId);
     }
 
+    /**
+     * manual override for orders that have no items to count down.
+     */
     public boolean markOrderReady(int orderId) {
-        boolean orderReadyStatusUpdateResult = orderDataAccessLayer.updateOrderStatus(orderId, "READY");
+        boolean orderReadyStatusUpdateResult = orderDataAccessLayer.moveOrderTo(orderId, OrderStatus.READY);
         if (orderReadyStatusUpdateResult) {
             logger.info("order " + orderId + " marked ready by chef");
         }
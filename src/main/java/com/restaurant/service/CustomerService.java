@@ -1,20 +1,23 @@
 package com.restaurant.service;
 
 import com.restaurant.config.DatabaseConnection;
+import com.restaurant.config.TransactionManager;
 import com.restaurant.dao.*;
 import com.restaurant.exceptions.BookingException;
 import com.restaurant.exceptions.OrderException;
+import com.restaurant.model.Bill;
 import com.restaurant.model.Customer;
-import com.restaurant.model.OrderItem;
+import com.restaurant.model.OrderLine;
+import com.restaurant.model.Table;
 import com.restaurant.util.LoggerUtil;
+import com.restaurant.util.NoShowScheduler;
 import com.restaurant.util.QueueManager;
-import com.restaurant.util.TableMonitorThread;
+import com.restaurant.util.WaiterLoadBalancer;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -29,34 +32,51 @@ public class CustomerService {
     private final OrderDAO orderDao = new OrderDAO();
     private final OrderItemDAO orderItemDao = new OrderItemDAO();
     private final BillDAO billDao = new BillDAO();
+    private final TabDAO tabDao = new TabDAO();
+    private final ReservationService reservationService = new ReservationService();
+    private final WaiterLoadBalancer waiterLoadBalancer = WaiterLoadBalancer.getInstance();
 
+    /**
+     * seats the customer now. a due reservation of theirs gets its reserved table,
+     * otherwise the best free table that is not held for someone else's upcoming reservation.
+     */
     public String bookTable(Customer customer, int requiredSeats) throws BookingException {
         if (customer.getTableId() != null) {
             logger.warning("customer " + customer.getName() + " tried double booking");
             throw new BookingException("You already have a table reserved.");
         }
+        customer.setRequiredSeats(requiredSeats);
+
+        Table availableTable = TransactionManager.inTransaction(() -> {
+            Table claimedTable = reservationService.claimReservedTable(customer);
+            if (claimedTable == null) {
+                claimedTable = tableDao.claimAvailableTable(requiredSeats, reservationService.getTablesHeldForReservations());
+            }
+            if (claimedTable == null) {
+                return null;
+            }
+
+            if (!customerDao.assignTableToCustomer(customer.getCustomerId(), claimedTable.getTableId())) {
+                throw new BookingException("Booking failed due to internal problem.");
+            }
+            return claimedTable;
+        });
 
-        var availableTable = tableDao.getAvailableTable(requiredSeats);
         if (availableTable == null) {
-            QueueManager.getInstance().putCustomerInQueue(customer);
+            if (!QueueManager.getInstance().putCustomerInQueue(customer)) {
+                throw new BookingException("No free tables now and the waiting line could not be joined, please try again.");
+            }
             return "Sorry no free tables now, but you are placed in waiting line.";
         }
 
-        boolean tableBooked = tableDao.assignTable(availableTable.getTableId());
-        boolean customerLinked = customerDao.assignTableToCustomer(customer.getCustomerId(), availableTable.getTableId());
+        customer.setTableId(availableTable.getTableId());
+        QueueManager.getInstance().removeFromQueue(customer.getCustomerId());
 
-        if (tableBooked && customerLinked) {
-            customer.setTableId(availableTable.getTableId());
+        logger.info("table " + availableTable.getTableId() + " booked for customer " + customer.getName());
 
-            logger.info("table " + availableTable.getTableId() + " booked for customer " + customer.getName());
+        NoShowScheduler.getInstance().register(customer, availableTable.getTableId());
 
-            TableMonitorThread monitor = new TableMonitorThread(customer, availableTable.getTableId());
-            monitor.start();
-
-            return "Table " + availableTable.getTableId() + " booked successfully for " + requiredSeats + " people. Please check in soon.";
-        } else {
-            throw new BookingException("Booking failed due to internal problem.");
-        }
+        return "Table " + availableTable.getTableId() + " booked successfully for " + requiredSeats + " people. Please check in soon.";
     }
 
     public String checkIn(Customer customer) throws BookingException {
@@ -67,23 +87,13 @@ public class CustomerService {
 
         if (checkInUpdated) {
             customer.setCheckedIn(true);
+            NoShowScheduler.getInstance().cancel(customer.getCustomerId());
             return "You are now checked in successfully.";
         } else {
             throw new BookingException("Checkin failed due to some system issue.");
         }
     }
 
-    public int createOrder(Customer customer, int waiterId) throws OrderException {
-        if (customer.getTableId() == null) {
-            throw new OrderException("You don't have a table, cannot place order.");
-        }
-        int orderId = orderDao.createOrder(customer.getCustomerId(), customer.getTableId(), waiterId);
-        if (orderId == -1) {
-            throw new OrderException("Order could not be created.");
-        }
-        return orderId;
-    }
-
     public boolean addItemToOrder(int orderId, int menuId, int quantity) throws OrderException {
         boolean itemAdded = orderItemDao.addItemToOrder(orderId, menuId, quantity);
         if (!itemAdded) {
@@ -92,45 +102,113 @@ public class CustomerService {
         return true;
     }
 
-    public int generateBill(int orderId, double totalAmount) {
-        int billId = billDao.generateBill(orderId, totalAmount);
+    public int generateBill(int orderId, long totalPaise) {
+        int billId = billDao.generateBill(orderId, totalPaise);
         return billId;
     }
 
-    public int generateCombinedBill(Customer customer) {
-        int billId = billDao.generateCombinedBill(customer.getCustomerId(), customer.getTableId());
-        return billId;
+    public Bill generateCombinedBill(Customer customer) {
+        return generateCombinedBill(customer, null);
+    }
+
+    /**
+     * bill with all its lines for everything the customer ordered at their table since their last bill,
+     * null if nothing to bill. a retry with the same idempotency key gets the bill made the first time.
+     */
+    public Bill generateCombinedBill(Customer customer, String idempotencyKey) {
+        if (customer.getTableId() == null) {
+            return null;
+        }
+        return billDao.generateCombinedBill(customer.getCustomerId(), customer.getTableId(), idempotencyKey);
     }
 
     public int createOrder(Customer customer) throws OrderException {
+        int orderId = insertOrder(customer, null);
+        if (orderId == -1) {
+            throw new OrderException("Order could not be created.");
+        }
+        return orderId;
+    }
+
+    /**
+     * saves a new order with a waiter. returns -1 when the row was not saved, the waiter is released then.
+     */
+    private int insertOrder(Customer customer, String idempotencyKey) throws OrderException {
         if (customer.getTableId() == null) {
             throw new OrderException("You don't have a table, cannot place order.");
         }
 
-        int waiterId = findAvailableWaiterId();
+        int tableId = customer.getTableId();
+        int waiterId = assignWaiter(tableId);
         if (waiterId == -1) {
             throw new OrderException("Sorry no waiter available right now.");
         }
 
-        int orderId = orderDao.createOrder(customer.getCustomerId(), customer.getTableId(), waiterId);
+        int orderId = orderDao.createOrder(customer.getCustomerId(), tableId, waiterId, idempotencyKey);
         if (orderId == -1) {
-            throw new OrderException("Order could not be created.");
+            waiterLoadBalancer.assignmentDropped(waiterId, tableId);
+            return -1;
         }
+        TransactionManager.afterCommit(() -> waiterLoadBalancer.assignmentSaved(waiterId, tableId));
+        TransactionManager.afterRollback(() -> waiterLoadBalancer.assignmentDropped(waiterId, tableId));
         return orderId;
     }
 
-    private int findAvailableWaiterId() {
-        try (Connection connection = DatabaseConnection.fetchConnection();
-             PreparedStatement statement = connection.prepareStatement("SELECT staff_id FROM staff WHERE role='WAITER' LIMIT 1");
-             ResultSet resultSet = statement.executeQuery()) {
+    public int placeOrder(Customer customer, List<OrderLine> orderLines) throws OrderException {
+        return placeOrder(customer, orderLines, null);
+    }
 
-            if (resultSet.next()) {
-                return resultSet.getInt("staff_id");
+    /**
+     * creates the order and all its cart lines in one transaction, so one commit for the whole cart.
+     * returns the new order id. a retry with the same idempotency key returns the order placed
+     * the first time and adds nothing, even when both attempts run at once.
+     */
+    public int placeOrder(Customer customer, List<OrderLine> orderLines, String idempotencyKey) throws OrderException {
+        if (orderLines.isEmpty()) {
+            throw new OrderException("Your cart is empty.");
+        }
+        for (OrderLine orderLine : orderLines) {
+            if (orderLine.getQuantity() <= 0) {
+                throw new OrderException("Quantity must be more than zero.");
             }
-        } catch (Exception exception) {
-            LoggerUtil.grabLogger().severe("error finding waiter: " + exception.getMessage());
         }
-        return -1;
+
+        return TransactionManager.inTransaction(() -> {
+            if (idempotencyKey != null) {
+                int placedOrderId = orderDao.findOrderIdByKey(idempotencyKey);
+                if (placedOrderId != -1) {
+                    logger.info("order request " + idempotencyKey + " was already placed as order " + placedOrderId);
+                    return placedOrderId;
+                }
+            }
+
+            int orderId = insertOrder(customer, idempotencyKey);
+            if (orderId == -1) {
+                int placedOrderId = idempotencyKey == null ? -1 : orderDao.findOrderIdByKey(idempotencyKey);
+                if (placedOrderId == -1) {
+                    throw new OrderException("Order could not be created.");
+                }
+                return placedOrderId;
+            }
+            if (!orderItemDao.addItemsToOrder(orderId, orderLines)) {
+                throw new OrderException("Items could not be added to order.");
+            }
+            logger.info("order " + orderId + " placed with " + orderLines.size() + " items for " + customer.getName());
+            return orderId;
+        });
+    }
+
+    /**
+     * waiter already serving this table, otherwise the least busy one.
+     * a waiter added since the last sweep is picked up by reloading when nobody is known.
+     */
+    private int assignWaiter(int tableId) {
+        int waiterId = waiterLoadBalancer.assignWaiter(tableId);
+        if (waiterId == -1) {
+            orderDao.resyncWaiterLoad();
+            waiterId = waiterLoadBalancer.assignWaiter(tableId);
+        }
+        return waiterId;
     }
 
     public int getLatestOrderForCustomer(int customerId) {
@@ -149,26 +227,14 @@ public class CustomerService {
         return -1;
     }
 
-    public double calculateOrderTotal(int orderId) {
-        String selectQuery = "SELECT oi.quantity, m.price " +
-                "FROM order_items oi " +
-                "JOIN menu m ON oi.menu_id = m.menu_id " +
-                "WHERE oi.order_id = ?";
-        double totalAmount = 0.0;
-        try (Connection connection = DatabaseConnection.fetchConnection();
-             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
-
-            statement.setInt(1, orderId);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                int quantity = resultSet.getInt("quantity");
-                double price = resultSet.getDouble("price");
-                totalAmount += quantity * price;
-            }
-        } catch (Exception exception) {
-            LoggerUtil.grabLogger().severe("Error calculating total for order " + orderId + ": " + exception.getMessage());
+    /**
+     * what the customer ordered at their table since their last bill in paise, read from their running tab. 0 when not seated.
+     */
+    public long getCurrentTotal(Customer customer) {
+        if (customer.getTableId() == null) {
+            return 0;
         }
-        return totalAmount;
+        return tabDao.getOpenTabTotalPaise(customer.getCustomerId(), customer.getTableId());
     }
 
     public boolean registerCustomer(String name, String username, String password) {
@@ -197,35 +263,4 @@ public class CustomerService {
         }
         return false;
     }
-
-    public List<OrderItem> getAllOrderItemsForCustomer(int customerId, int tableId) {
-        List<OrderItem> orderItems = new ArrayList<>();
-        String selectQuery = "SELECT oi.item_id, oi.order_id, oi.menu_id, m.item_name, m.price, oi.quantity, oi.status " +
-                "FROM orders o " +
-                "JOIN order_items oi ON o.order_id = oi.order_id " +
-                "JOIN menu m ON oi.menu_id = m.menu_id " +
-                "WHERE o.customer_id = ? AND o.table_id = ?";
-        try (Connection connection = DatabaseConnection.fetchConnection();
-             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
-
-            statement.setInt(1, customerId);
-            statement.setInt(2, tableId);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                OrderItem orderItem = new OrderItem(
-                        resultSet.getInt("item_id"),
-                        resultSet.getInt("order_id"),
-                        resultSet.getInt("menu_id"),
-                        resultSet.getInt("quantity"),
-                        resultSet.getString("status")
-                );
-                orderItem.setItemName(resultSet.getString("item_name"));
-                orderItem.setPrice(resultSet.getDouble("price"));
-                orderItems.add(orderItem);
-            }
-        } catch (SQLException exception) {
-            LoggerUtil.grabLogger().severe("Error fetching order items for bill: " + exception.getMessage());
-        }
-        return orderItems;
-    }
-}
\ No newline at end of file
+}
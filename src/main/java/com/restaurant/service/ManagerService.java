@@ -1,16 +1,18 @@
 package com.restaurant.service;
 
-import com.restaurant.config.DatabaseConnection;
+import com.restaurant.config.TransactionManager;
 import com.restaurant.dao.*;
+import com.restaurant.exceptions.BookingException;
+import com.restaurant.exceptions.PaymentException;
 import com.restaurant.model.Order;
 import com.restaurant.model.OrderItem;
+import com.restaurant.model.OrderStatus;
 import com.restaurant.model.Table;
 import com.restaurant.util.LoggerUtil;
 import com.restaurant.util.QueueManager;
+import com.restaurant.util.WaiterLoad;
+import com.restaurant.util.WaiterLoadBalancer;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -25,9 +27,10 @@ public class ManagerService {
     private final PaymentDAO paymentDao = new PaymentDAO();
     private final TableDAO tableDao = new TableDAO();
     private final CustomerDAO customerDao = new CustomerDAO();
+    private final TabDAO tabDao = new TabDAO();
 
     public List<Order> viewCompletedOrders() {
-        List<Order> orders = orderDao.getOrdersByStatus("READY");
+        List<Order> orders = orderDao.getOrdersByStatus(OrderStatus.READY);
         return orders;
     }
 
@@ -37,69 +40,115 @@ public class ManagerService {
         return orderItems;
     }
 
-    public int generateBill(int orderId, double total) {
-        int billId = billDao.generateBill(orderId, total);
+    public int generateBill(int orderId, long totalPaise) {
+        int billId = billDao.generateBill(orderId, totalPaise);
         return billId;
     }
 
-    public boolean recordPayment(int billId, String method, double amount) {
-        String insertQuery = "INSERT INTO payments (bill_id, payment_method, amount) VALUES (?, ?, ?)";
-        try (Connection connection = DatabaseConnection.fetchConnection();
-             PreparedStatement statement = connection.prepareStatement(insertQuery)) {
-
-            statement.setInt(1, billId);
-            statement.setString(2, method);
-            statement.setDouble(3, amount);
-            int rowsAffected = statement.executeUpdate();
+    public boolean recordPayment(int billId, String method, long amountPaise) {
+        return recordPayment(billId, method, amountPaise, null);
+    }
 
-            if (rowsAffected > 0) {
-                int tableId = getTableIdFromBill(billId);
-                if (tableId != -1) {
-                    TableDAO tableService = new TableDAO();
-                    tableService.freeTable(tableId);
-                    LoggerUtil.grabLogger().info("bill " + billId + " paid and table " + tableId + " freed");
+    /**
+     * settles a bill in one transaction on one connection: marks the bill paid, records the payment,
+     * moves its orders to COMPLETED and closes the customer's tab. while the billed customer still sits
+     * at the table they are unlinked and the table is freed; the waiting line is seated once that commits.
+     * a bill with orders not served yet, or whose customer ordered more after it was made, is refused
+     * so nothing is left cooking or unbilled at a freed table.
+     * a bill that is already paid is not settled again. a retry with the same idempotency key
+     * finds the first payment and reports success without doing anything.
+     */
+    public boolean recordPayment(int billId, String method, long amountPaise, String idempotencyKey) {
+        if (idempotencyKey != null && paymentDao.findPaymentIdByKey(idempotencyKey) != -1) {
+            logger.info("payment request " + idempotencyKey + " for bill " + billId + " was already recorded");
+            return true;
+        }
+        try {
+            return TransactionManager.inTransaction(() -> {
+                Order billedOrder = billDao.markBillAsPaid(billId);
+                if (billedOrder == null) {
+                    throw new PaymentException("bill " + billId + " not found or already paid");
+                }
+                int unservedOrders = orderDao.countUnservedOrdersOfBill(billId);
+                if (unservedOrders != 0) {
+                    throw new PaymentException("bill " + billId + " has " + unservedOrders + " orders not served yet");
+                }
+                if (paymentDao.recordPayment(billId, method, amountPaise, idempotencyKey) == -1) {
+                    throw new PaymentException("payment for bill " + billId + " not saved");
                 }
+                if (orderDao.completeOrdersOfBill(billId) == -1) {
+                    throw new PaymentException("orders of bill " + billId + " could not be completed");
+                }
+                int customerId = billedOrder.getCustomerId();
+                int tableId = billedOrder.getTableId();
+                if (customerId > 0 && tableId > 0) {
+                    long unbilledPaise = tabDao.getTotalOrderedAfterPaise(customerId, tableId, billedOrder.getOrderId());
+                    if (unbilledPaise != 0) {
+                        throw new PaymentException("customer " + customerId + " has orders at table " + tableId
+                                + " that bill " + billId + " does not cover");
+                    }
+                    if (!tabDao.closeTab(customerId, tableId)) {
+                        throw new PaymentException("tab of customer " + customerId + " could not be closed");
+                    }
+                    int released = tableDao.releaseTableOf(tableId, customerId);
+                    if (released == -1) {
+                        throw new PaymentException("table " + tableId + " could not be freed");
+                    }
+                    if (released == 1) {
+                        TransactionManager.afterCommit(() -> QueueManager.getInstance().tryAssignFreeTable());
+                    }
+                }
+                logger.info("bill " + billId + " settled for customer " + customerId + " at table " + tableId);
                 return true;
-            }
+            });
         } catch (Exception exception) {
-            LoggerUtil.grabLogger().severe("Error recording payment for bill " + billId + ": " + exception.getMessage());
+            if (idempotencyKey != null && paymentDao.findPaymentIdByKey(idempotencyKey) != -1) {
+                // a concurrent attempt with the same key settled it first
+                return true;
+            }
+            logger.warning("payment for bill " + billId + " failed: " + exception.getMessage());
         }
         return false;
     }
 
+    /**
+     * open orders and tables of every waiter, least busy first.
+     */
+    public List<WaiterLoad> viewWaiterLoads() {
+        return WaiterLoadBalancer.getInstance().getLoads();
+    }
+
     public List<Table> viewVacantTables() {
         List<Table> tables = tableDao.getVacantTables();
         return tables;
     }
 
+    /**
+     * frees the table, unlinks whoever sits there and closes their tab in one transaction,
+     * then offers the table to the waiting line. a table nobody is linked to is still freed.
+     */
     public boolean freeTableManually(int tableId) {
-        boolean tableFreed = tableDao.freeTable(tableId);
-        boolean customerCleared = customerDao.clearCustomerByTableId(tableId);
-
-        if (tableFreed && customerCleared) {
-            QueueManager.getInstance().tryAssignFreeTable();
-            logger.warning("table " + tableId + " was freed manually by manager");
-            return true;
-        }
-        return false;
-    }
-
-    private int getTableIdFromBill(int billId) {
-        String selectQuery = "SELECT o.table_id " +
-                "FROM bills b " +
-                "JOIN orders o ON b.order_id = o.order_id " +
-                "WHERE b.bill_id = ?";
-        try (Connection connection = DatabaseConnection.fetchConnection();
-             PreparedStatement statement = connection.prepareStatement(selectQuery)) {
-
-            statement.setInt(1, billId);
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                return resultSet.getInt("table_id");
-            }
+        try {
+            TransactionManager.inTransaction(() -> {
+                if (!tableDao.freeTable(tableId)) {
+                    throw new BookingException("table " + tableId + " could not be freed");
+                }
+                // false when nobody is linked to the table; an sql error aborts the transaction
+                // and makes the tab update below fail, which rolls everything back
+                customerDao.clearCustomerByTableId(tableId);
+                if (!tabDao.closeTabsAtTable(tableId)) {
+                    throw new BookingException("tab at table " + tableId + " could not be closed");
+                }
+                return null;
+            });
         } catch (Exception exception) {
-            LoggerUtil.grabLogger().severe("Error fetching tableId from bill " + billId + ": " + exception.getMessage());
+            // also a failed commit or a wrapped sql error, which must not end the manager's session
+            logger.warning("manual free of table " + tableId + " failed: " + exception.getMessage());
+            return false;
         }
-        return -1;
+
+        QueueManager.getInstance().tryAssignFreeTable();
+        logger.warning("table " + tableId + " was freed manually by manager");
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.restaurant.service;
+
+import com.restaurant.dao.ReservationDAO;
+import com.restaurant.dao.TableDAO;
+import com.restaurant.exceptions.BookingException;
+import com.restaurant.model.Customer;
+import com.restaurant.model.Reservation;
+import com.restaurant.model.Table;
+import com.restaurant.util.LoggerUtil;
+import com.restaurant.util.ReservationIndex;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Handles booking tables for a later time slot and seating guests when their slot comes.
+ */
+public class ReservationService {
+    private static final Logger logger = LoggerUtil.grabLogger();
+    private static final int MAX_SLOT_ATTEMPTS = 3;
+
+    private final ReservationDAO reservationDao = new ReservationDAO();
+    private final TableDAO tableDao = new TableDAO();
+    private final int horizonDays = ReservationIndex.getInstance().getHorizonDays();
+    private final int walkInMinutes = ReservationIndex.getInstance().getWalkInMinutes();
+
+    /**
+     * reserves the smallest table that fits and is free for the whole slot.
+     * if another booking takes that table at the same moment, the next best table is tried.
+     */
+    public Reservation reserveTable(Customer customer, int partySize, Instant startsAt, int durationMinutes) throws BookingException {
+        if (partySize <= 0 || durationMinutes <= 0) {
+            throw new BookingException("Guests and duration must be more than zero.");
+        }
+        Instant now = Instant.now();
+        if (!startsAt.isAfter(now)) {
+            throw new BookingException("Reservation time must be in the future.");
+        }
+        if (startsAt.isAfter(now.plus(Duration.ofDays(horizonDays)))) {
+            throw new BookingException("Reservations can be made only " + horizonDays + " days ahead.");
+        }
+        Instant endsAt = startsAt.plus(Duration.ofMinutes(durationMinutes));
+
+        Set<Integer> triedTableIds = new HashSet<>();
+        for (int attempt = 0; attempt < MAX_SLOT_ATTEMPTS; attempt++) {
+            Table freeTable = reservationDao.findFreeTable(partySize, startsAt, endsAt, triedTableIds);
+            if (freeTable == null) {
+                throw new BookingException("No table for " + partySize + " people is free at that time.");
+            }
+            Reservation reservation = new Reservation(0, customer.getCustomerId(), freeTable.getTableId(),
+                    partySize, startsAt, endsAt, "BOOKED");
+            if (reservationDao.createReservation(reservation) != -1) {
+                logger.info("table " + freeTable.getTableId() + " reserved for " + customer.getName() + " at " + startsAt);
+                return reservation;
+            }
+            triedTableIds.add(freeTable.getTableId());
+        }
+        throw new BookingException("That time is very busy, please try another slot.");
+    }
+
+    public void cancelReservation(Customer customer, int reservationId) throws BookingException {
+        if (reservationDao.closeReservation(reservationId, customer.getCustomerId(), "CANCELLED") == null) {
+            throw new BookingException("No open reservation #" + reservationId + " found for you.");
+        }
+        logger.info("reservation " + reservationId + " cancelled by " + customer.getName());
+    }
+
+    public List<Reservation> getUpcomingReservations(Customer customer) {
+        return reservationDao.getUpcomingReservations(customer.getCustomerId());
+    }
+
+    /**
+     * tables walk-ins must not get right now because a reservation on them starts soon.
+     */
+    public Set<Integer> getTablesHeldForReservations() {
+        return reservationDao.getTablesHeldForReservations();
+    }
+
+    /**
+     * books the reserved table when the customer's reservation is due (from the walk-in window
+     * before its start until its end) and marks the reservation SEATED.
+     * null when nothing is due or the table is still occupied. meant to run inside the booking transaction.
+     */
+    public Table claimReservedTable(Customer customer) throws BookingException {
+        Instant now = Instant.now();
+        for (Reservation reservation : reservationDao.getUpcomingReservations(customer.getCustomerId())) {
+            if (reservation.getStartsAt().minus(Duration.ofMinutes(walkInMinutes)).isAfter(now)) {
+                break;
+            }
+            Table reservedTable = tableDao.claimTable(reservation.getTableId());
+            if (reservedTable == null) {
+                continue;
+            }
+            if (reservationDao.closeReservation(reservation.getReservationId(), customer.getCustomerId(), "SEATED") == null) {
+                throw new BookingException("Reservation could not be used, please try again.");
+            }
+            return reservedTable;
+        }
+        return null;
+    }
+}
@@ -1,10 +1,13 @@
 package com.restaurant.service;
 
+import com.restaurant.config.TransactionManager;
 import com.restaurant.dao.OrderDAO;
 import com.restaurant.dao.OrderItemDAO;
 import com.restaurant.model.Order;
 import com.restaurant.model.OrderItem;
+import com.restaurant.model.OrderStatus;
 import com.restaurant.util.LoggerUtil;
+import com.restaurant.util.WaiterLoadBalancer;
 
 import java.util.List;
 import java.util.logging.Logger;
@@ -19,21 +22,28 @@ public class WaiterService {
     private final OrderDAO orderDao = new OrderDAO();
     private final OrderItemDAO orderItemDao = new OrderItemDAO();
 
-    public List<Order> getOrdersForWaiter(int waiterId) {
-        return orderDao.getOrdersByStatus("PENDING").stream()
-                .filter(order -> order.getWaiterId() == waiterId)
-                .toList();
+    /**
+     * next page of pending orders assigned to this waiter, after is last order already shown or null.
+     */
+    public List<Order> getOrdersForWaiter(int waiterId, Order after, int pageSize) {
+        return orderDao.getOrdersForWaiter(waiterId, OrderStatus.PENDING, after, pageSize);
     }
 
     public List<OrderItem> getItemsByOrder(int orderId) {
         return orderItemDao.getItemsByOrder(orderId);
     }
 
+    /**
+     * once served, the order no longer counts towards the waiter's load.
+     */
     public boolean markOrderAsServed(int orderId) {
-        boolean updated = orderDao.updateOrderStatus(orderId, "SERVED");
-        if (updated) {
-            logger.info("order " + orderId + " marked served by waiter");
+        Order servedOrder = orderDao.transitionOrder(orderId, OrderStatus.SERVED);
+        if (servedOrder == null) {
+            return false;
         }
-        return updated;
+        TransactionManager.afterCommit(() -> WaiterLoadBalancer.getInstance()
+                .orderClosed(servedOrder.getWaiterId(), servedOrder.getTableId()));
+        logger.info("order " + orderId + " marked served by waiter");
+        return true;
     }
 }
@@ -7,9 +7,9 @@ import java.util.List;
 public interface MenuServiceInterface {
     List<MenuItem> getAllMenuItems();
 
-    boolean addMenuItem(String name, double price);
+    boolean addMenuItem(String name, long pricePaise);
 
-    boolean updatePrice(int menuId, double newPrice);
+    boolean updatePrice(int menuId, long newPricePaise);
 
     boolean deleteMenuItem(int menuId);
 }
@@ -1,13 +1,12 @@
 package com.restaurant.service.interfaces;
 
 import com.restaurant.model.Order;
+import com.restaurant.model.OrderStatus;
 
 import java.util.List;
 
 public interface OrderServiceInterface {
-    int createOrder(int customerId, int tableId, int waiterId);
-
     List<Order> getOrdersByCustomer(int customerId);
 
-    boolean updateOrderStatus(int orderId, String status);
+    boolean moveOrderTo(int orderId, OrderStatus status);
 }
@@ -8,6 +8,8 @@ public interface TableServiceInterface {
 
     Table getAvailableTable(int requiredSeats);
 
+    Table claimAvailableTable(int requiredSeats);
+
     boolean assignTable(int tableId);
 
     boolean freeTable(int tableId);
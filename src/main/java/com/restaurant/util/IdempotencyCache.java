@@ -0,0 +1,47 @@
+package com.restaurant.util;
+
+import com.restaurant.config.ApplicationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * recently seen idempotency keys with the id they produced (order, bill or payment id).
+ * a retry of something just done is answered from here without going to database.
+ * only the last idempotency.cacheSize keys are kept, least recently used go first;
+ * older keys are still found through the unique index in database.
+ * DAOs put a key in only after its transaction committed.
+ */
+public class IdempotencyCache {
+    private static IdempotencyCache onlyOneInstance;
+
+    private final Map<String, Integer> resultIdByKey;
+
+    IdempotencyCache(int capacity) {
+        resultIdByKey = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public static synchronized IdempotencyCache getInstance() {
+        if (onlyOneInstance == null) {
+            onlyOneInstance = new IdempotencyCache(ApplicationProperties.getInt("idempotency.cacheSize", 10000));
+        }
+        return onlyOneInstance;
+    }
+
+    /**
+     * id remembered for this key, -1 if it is not in the cache. scope keeps orders, bills and payments apart.
+     */
+    public synchronized int get(String scope, String idempotencyKey) {
+        Integer resultId = resultIdByKey.get(scope + ':' + idempotencyKey);
+        return resultId == null ? -1 : resultId;
+    }
+
+    public synchronized void remember(String scope, String idempotencyKey, int resultId) {
+        resultIdByKey.put(scope + ':' + idempotencyKey, resultId);
+    }
+}
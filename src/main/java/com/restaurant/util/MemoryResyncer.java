@@ -0,0 +1,78 @@
+package com.restaurant.util;
+
+import com.restaurant.config.ApplicationProperties;
+import com.restaurant.dao.OrderDAO;
+import com.restaurant.dao.ReservationDAO;
+import com.restaurant.dao.TableDAO;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * background job that reloads the in-memory copies from database: the table availability
+ * and reservation indexes, the waiter load counters and the waiting line.
+ * they only see what this process did, so changes made by another app instance
+ * show up here after at most one interval. the first resync runs right at startup.
+ */
+public class MemoryResyncer {
+    private static final Logger logger = LoggerUtil.grabLogger();
+    private static MemoryResyncer onlyOneInstance;
+
+    private final TableDAO tableDao = new TableDAO();
+    private final ReservationDAO reservationDao = new ReservationDAO();
+    private final OrderDAO orderDao = new OrderDAO();
+    private final long resyncIntervalSeconds;
+    private ScheduledExecutorService resyncer;
+
+    private MemoryResyncer() {
+        resyncIntervalSeconds = ApplicationProperties.getLong("memory.resyncIntervalSeconds", 60);
+    }
+
+    public static synchronized MemoryResyncer getInstance() {
+        if (onlyOneInstance == null) {
+            onlyOneInstance = new MemoryResyncer();
+        }
+        return onlyOneInstance;
+    }
+
+    public synchronized void start() {
+        if (resyncer != null) {
+            return;
+        }
+        resyncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "memory-resyncer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        resyncer.scheduleWithFixedDelay(this::resyncSafely, 0, resyncIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stop() {
+        if (resyncer != null) {
+            resyncer.shutdownNow();
+            resyncer = null;
+        }
+    }
+
+    /**
+     * reload every in-memory copy once, then offer free tables to whoever the reload brought into the waiting line.
+     */
+    public void resync() {
+        tableDao.resyncAvailabilityIndex();
+        reservationDao.resyncReservationIndex();
+        orderDao.resyncWaiterLoad();
+        QueueManager queueManager = QueueManager.getInstance();
+        queueManager.reload();
+        queueManager.tryAssignFreeTable();
+    }
+
+    private void resyncSafely() {
+        try {
+            resync();
+        } catch (RuntimeException exception) {
+            logger.severe("memory resync failed: " + exception.getMessage());
+        }
+    }
+}
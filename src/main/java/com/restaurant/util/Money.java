@@ -0,0 +1,59 @@
+package com.restaurant.util;
+
+/**
+ * money is kept as a long count of paise (1 Rs = 100 paise) everywhere in the app,
+ * so adding up a bill is exact integer math with no double drift and no BigDecimal or boxing.
+ * DAOs convert at the database edge: they read CAST(price * 100 AS BIGINT) and write
+ * CAST(? AS BIGINT) / 100.0 into the DECIMAL(10,2) columns. this class only turns text into
+ * paise and back and does overflow-checked arithmetic.
+ */
+public final class Money {
+    private static final int PAISE_PER_RUPEE = 100;
+
+    private Money() {}
+
+    /**
+     * reads an amount in rupees like "120", "120.5" or "120.50". throws NumberFormatException
+     * for negative amounts, more than two decimals or anything that is not a number.
+     */
+    public static long parse(String rupees) {
+        String amount = rupees.trim();
+        int dot = amount.indexOf('.');
+        String wholePart = dot < 0 ? amount : amount.substring(0, dot);
+        String fractionPart = dot < 0 ? "" : amount.substring(dot + 1);
+        if (wholePart.isEmpty() || fractionPart.length() > 2 || !isDigits(wholePart) || !isDigits(fractionPart)) {
+            throw new NumberFormatException("not an amount in rupees: " + rupees);
+        }
+        long paise = Math.multiplyExact(Long.parseLong(wholePart), PAISE_PER_RUPEE);
+        if (!fractionPart.isEmpty()) {
+            int fraction = Integer.parseInt(fractionPart);
+            paise = Math.addExact(paise, fractionPart.length() == 1 ? fraction * 10 : fraction);
+        }
+        return paise;
+    }
+
+    /**
+     * paise as rupees with two decimals, like "120.50". works for every long: the sign is split off
+     * after dividing, so Long.MIN_VALUE never goes through Math.abs.
+     */
+    public static String format(long paise) {
+        long wholeRupees = Math.abs(paise / PAISE_PER_RUPEE);
+        long restPaise = Math.abs(paise % PAISE_PER_RUPEE);
+        String rupees = wholeRupees + "." + (restPaise < 10 ? "0" : "") + restPaise;
+        return paise < 0 ? "-" + rupees : rupees;
+    }
+
+    public static long add(long paise, long morePaise) {
+        return Math.addExact(paise, morePaise);
+    }
+
+    private static boolean isDigits(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char digit = text.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,156 @@
+package com.restaurant.util;
+
+import com.restaurant.config.ApplicationProperties;
+import com.restaurant.dao.TableDAO;
+import com.restaurant.model.Customer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * one shared timer for booking no-shows.
+ * every booking registers a deadline here instead of parking its own sleeping thread.
+ * check-in cancels the deadline, otherwise the table is freed when it fires
+ * and the next customer in waiting line gets a chance.
+ */
+public class NoShowScheduler {
+    private static final Logger logger = LoggerUtil.grabLogger();
+    private static NoShowScheduler onlyOneInstance;
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final Map<Integer, Deadline> deadlinesByCustomer = new ConcurrentHashMap<>();
+    private final long noShowMillis;
+    private final TableDAO tableDao = new TableDAO();
+
+    private final LongAdder firedCount = new LongAdder();
+    private final LongAdder cancelledCount = new LongAdder();
+    private final LongAdder totalLatenessNanos = new LongAdder();
+    private final AtomicLong maxLatenessNanos = new AtomicLong();
+
+    private NoShowScheduler() {
+        noShowMillis = TimeUnit.MINUTES.toMillis(ApplicationProperties.getLong("booking.noShowMinutes", 20));
+        timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "no-show-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    public static synchronized NoShowScheduler getInstance() {
+        if (onlyOneInstance == null) {
+            onlyOneInstance = new NoShowScheduler();
+        }
+        return onlyOneInstance;
+    }
+
+    /**
+     * start the no-show countdown for a fresh booking. an older countdown of same customer is replaced.
+     */
+    public void register(Customer customer, int tableId) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(noShowMillis);
+        AtomicReference<Deadline> thisDeadline = new AtomicReference<>();
+        ScheduledFuture<?> timeout = timer.schedule(() -> expire(customer, tableId, deadlineNanos, thisDeadline.get()),
+                noShowMillis, TimeUnit.MILLISECONDS);
+        Deadline deadline = new Deadline(customer, tableId, timeout);
+        thisDeadline.set(deadline);
+
+        Deadline previous = deadlinesByCustomer.put(customer.getCustomerId(), deadline);
+        if (previous != null && previous.timeout.cancel(false)) {
+            cancelledCount.increment();
+        }
+    }
+
+    /**
+     * stop the countdown, for example when customer checks in. returns false if nothing was pending.
+     */
+    public boolean cancel(int customerId) {
+        Deadline deadline = deadlinesByCustomer.remove(customerId);
+        if (deadline != null && deadline.timeout.cancel(false)) {
+            cancelledCount.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * the booking of this customer at this table was already released in database, e.g. by NoShowSweeper:
+     * drop the countdown and unlink the customer it was registered for, so their session sees it too.
+     * returns false if no countdown for that table was pending.
+     */
+    public boolean released(int customerId, int tableId) {
+        Deadline deadline = deadlinesByCustomer.get(customerId);
+        if (deadline == null || deadline.tableId != tableId || !deadlinesByCustomer.remove(customerId, deadline)) {
+            return false;
+        }
+        if (deadline.timeout.cancel(false)) {
+            cancelledCount.increment();
+        }
+        deadline.customer.setTableId(null);
+        return true;
+    }
+
+    public int getPendingCount() {
+        return deadlinesByCustomer.size();
+    }
+
+    public long getFiredCount() {
+        return firedCount.sum();
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount.sum();
+    }
+
+    public double getAverageLatenessMillis() {
+        long fired = firedCount.sum();
+        return fired == 0 ? 0.0 : totalLatenessNanos.sum() / 1_000_000.0 / fired;
+    }
+
+    public double getMaxLatenessMillis() {
+        return maxLatenessNanos.get() / 1_000_000.0;
+    }
+
+    private void expire(Customer customer, int tableId, long deadlineNanos, Deadline thisDeadline) {
+        long latenessNanos = Math.max(0, System.nanoTime() - deadlineNanos);
+        firedCount.increment();
+        totalLatenessNanos.add(latenessNanos);
+        maxLatenessNanos.accumulateAndGet(latenessNanos, Math::max);
+
+        // only our own entry: a rebooking may already have put a newer deadline there,
+        // and a check-in that removed us first means there is nothing to release
+        if (!deadlinesByCustomer.remove(customer.getCustomerId(), thisDeadline) || customer.isCheckedIn()) {
+            return;
+        }
+
+        // the database decides: the table is released only if this customer still holds it unchecked
+        if (!tableDao.releaseNoShowTable(tableId, customer.getCustomerId())) {
+            logger.info("no-show deadline of customer " + customer.getName() + " passed but table " + tableId + " was not theirs to free");
+            return;
+        }
+        customer.setTableId(null);
+        logger.warning("customer " + customer.getName() + " not checked in. table " + tableId + " is freed");
+
+        QueueManager.getInstance().tryAssignFreeTable();
+    }
+
+    // a pending countdown with the customer and table it was started for
+    private static final class Deadline {
+        private final Customer customer;
+        private final int tableId;
+        private final ScheduledFuture<?> timeout;
+
+        private Deadline(Customer customer, int tableId, ScheduledFuture<?> timeout) {
+            this.customer = customer;
+            this.tableId = tableId;
+            this.timeout = timeout;
+        }
+    }
+}
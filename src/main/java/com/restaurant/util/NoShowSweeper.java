@@ -0,0 +1,103 @@
+package com.restaurant.util;
+
+import com.restaurant.config.ApplicationProperties;
+import com.restaurant.dao.ReservationDAO;
+import com.restaurant.dao.TableDAO;
+import com.restaurant.model.Reservation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * background job that frees tables of customers who never showed up.
+ * it reads tables.booking_time from database, so bookings made before a restart
+ * or by another app instance are also released. NoShowScheduler is the fast path,
+ * this sweeper is the safety net. reservations whose guests have not come within the same window
+ * after their start are marked NO_SHOW, so their table is not held until the slot ends.
+ * the first sweep runs right at startup.
+ */
+public class NoShowSweeper {
+    private static final Logger logger = LoggerUtil.grabLogger();
+    private static NoShowSweeper onlyOneInstance;
+
+    private final TableDAO tableDao = new TableDAO();
+    private final ReservationDAO reservationDao = new ReservationDAO();
+    private final int noShowMinutes;
+    private final int batchLimit;
+    private final long sweepIntervalSeconds;
+    private ScheduledExecutorService sweeper;
+
+    private NoShowSweeper() {
+        noShowMinutes = ApplicationProperties.getInt("booking.noShowMinutes", 20);
+        batchLimit = ApplicationProperties.getInt("booking.sweepBatchSize", 500);
+        sweepIntervalSeconds = ApplicationProperties.getLong("booking.sweepIntervalSeconds", 60);
+    }
+
+    public static synchronized NoShowSweeper getInstance() {
+        if (onlyOneInstance == null) {
+            onlyOneInstance = new NoShowSweeper();
+        }
+        return onlyOneInstance;
+    }
+
+    public synchronized void start() {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "no-show-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepSafely, 0, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    /**
+     * free every overdue booking batch by batch, drop the countdowns of the customers released with them
+     * and expire no-show reservations, then refill freed tables from waiting line.
+     * returns how many tables were freed.
+     */
+    public int sweep() {
+        NoShowScheduler noShowScheduler = NoShowScheduler.getInstance();
+        int totalFreed = 0;
+        Map<Integer, List<Integer>> releasedCustomersByTable;
+        do {
+            releasedCustomersByTable = tableDao.releaseExpiredBookings(noShowMinutes, batchLimit);
+            totalFreed += releasedCustomersByTable.size();
+            releasedCustomersByTable.forEach((tableId, customerIds) ->
+                    customerIds.forEach(customerId -> noShowScheduler.released(customerId, tableId)));
+        } while (releasedCustomersByTable.size() == batchLimit);
+
+        int totalExpired = 0;
+        List<Reservation> expiredReservations;
+        do {
+            expiredReservations = reservationDao.expireNoShowReservations(noShowMinutes, batchLimit);
+            totalExpired += expiredReservations.size();
+        } while (expiredReservations.size() == batchLimit);
+
+        if (totalFreed > 0 || totalExpired > 0) {
+            logger.warning("no-show sweep freed " + totalFreed + " tables and expired " + totalExpired + " reservations");
+            QueueManager.getInstance().tryAssignFreeTable();
+        }
+        return totalFreed;
+    }
+
+    private void sweepSafely() {
+        try {
+            sweep();
+        } catch (RuntimeException exception) {
+            logger.severe("no-show sweep failed: " + exception.getMessage());
+        }
+    }
+}
@@ -1,24 +1,62 @@
 package com.restaurant.util;
 
+import com.restaurant.config.ApplicationProperties;
+import com.restaurant.config.TransactionManager;
 import com.restaurant.dao.CustomerDAO;
+import com.restaurant.dao.ReservationDAO;
 import com.restaurant.dao.TableDAO;
+import com.restaurant.dao.WaitlistDAO;
 import com.restaurant.model.Customer;
+import com.restaurant.model.Table;
+import com.restaurant.model.WaitingParty;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * this manager keep track of customers waiting.
  * it is like a line infront of restaurant when no table free.
- * whenever table is freed we try to put first person in line to it.
+ * the line is split by party size, so whenever tables are freed
+ * each one goes to the waiting party that fits it best, not only to first person in line.
+ * the line itself is saved in waitlist table, this class keeps a copy in memory
+ * which is rebuilt from database at startup and on every reload().
+ *
+ * no lock is held while talking to database. callers only drop their change in a
+ * concurrent inbox and ask the SingleWriter for a pass; one thread at a time applies
+ * the inboxes to the in-memory line and does the seating, others return right away.
  */
 public class QueueManager {
     private static QueueManager onlyOneInstance;
-    private final Queue<Customer> waitingCustomers = new LinkedList<>();
+    private final long agingMillis;
     private final TableDAO tableDao = new TableDAO();
     private final CustomerDAO customerDao = new CustomerDAO();
+    private final WaitlistDAO waitlistDao = new WaitlistDAO();
+    private final ReservationDAO reservationDao = new ReservationDAO();
 
-    private QueueManager() {}
+    private final Set<Integer> queuedCustomerIds = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<WaitingParty> arrivals = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Integer> departures = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean(false);
+    private final AtomicBoolean seatingRequested = new AtomicBoolean(false);
+    private final SingleWriter writer = new SingleWriter(this::runPass);
+
+    // only touched by the thread currently inside runPass
+    private Waitlist waitingCustomers;
+
+    private QueueManager() {
+        agingMillis = TimeUnit.MINUTES.toMillis(ApplicationProperties.getLong("queue.agingMinutes", 15));
+        waitingCustomers = new Waitlist(agingMillis);
+        reloadRequested.set(true);
+        runPass();
+    }
 
     public static synchronized QueueManager getInstance() {
         if (onlyOneInstance == null) {
@@ -27,33 +65,176 @@ public class QueueManager {
         return onlyOneInstance;
     }
 
-    public synchronized void putCustomerInQueue(Customer customer) {
-        waitingCustomers.add(customer);
+    /**
+     * puts the customer in the waiting line. true when they are waiting now, also when they already were.
+     * false when the line could not be saved, then they are not in the in-memory line either.
+     */
+    public boolean putCustomerInQueue(Customer customer) {
+        if (!queuedCustomerIds.add(customer.getCustomerId())) {
+            return true;
+        }
+        if (!waitlistDao.enqueue(customer.getCustomerId(), customer.getRequiredSeats())) {
+            queuedCustomerIds.remove(customer.getCustomerId());
+            LoggerUtil.grabLogger().warning("customer " + customer.getName() + " could not be added to waiting list");
+            return false;
+        }
+        arrivals.offer(new WaitingParty(customer, customer.getRequiredSeats(), System.currentTimeMillis()));
+        writer.request();
         LoggerUtil.grabLogger().info("customer " + customer.getName() + " added to waiting list");
+        return true;
     }
 
-    public synchronized void tryAssignFreeTable() {
+    /**
+     * take customer out of line, for example when they got a table on their own.
+     */
+    public void removeFromQueue(int customerId) {
+        if (queuedCustomerIds.remove(customerId)) {
+            waitlistDao.removeAll(List.of(customerId));
+            departures.offer(customerId);
+            writer.request();
+        }
+    }
+
+    /**
+     * rebuild the in-memory line from waitlist table.
+     * picks up parties added or seated by other app instances.
+     */
+    public void reload() {
+        reloadRequested.set(true);
+        writer.request();
+    }
+
+    public int getWaitingCount() {
+        return queuedCustomerIds.size();
+    }
+
+    /**
+     * seats as many waiting parties as possible on the tables that are vacant now.
+     * vacant tables and the whole line are matched in memory, then saved with one batched transaction.
+     * tables held for an upcoming reservation are left out.
+     * if another thread is already seating, it does this pass too and this call returns at once.
+     */
+    public void tryAssignFreeTable() {
+        seatingRequested.set(true);
+        writer.request();
+    }
+
+    /**
+     * one pass of the single writer: apply inboxes to the line, then seat if asked.
+     */
+    private void runPass() {
+        if (reloadRequested.getAndSet(false)) {
+            rebuildFromDatabase();
+        }
+        WaitingParty arrival;
+        while ((arrival = arrivals.poll()) != null) {
+            waitingCustomers.add(arrival.getCustomer(), arrival.getSeats(), arrival.getEnqueuedAtMillis());
+        }
+        Integer departure;
+        while ((departure = departures.poll()) != null) {
+            waitingCustomers.remove(departure);
+        }
+        if (seatingRequested.getAndSet(false)) {
+            seatWaitingParties();
+        }
+    }
+
+    private void rebuildFromDatabase() {
+        Waitlist rebuilt = new Waitlist(agingMillis);
+        Set<Integer> persistedIds = new HashSet<>();
+        for (WaitingParty persisted : waitlistDao.getAllWaiting()) {
+            int customerId = persisted.getCustomer().getCustomerId();
+            WaitingParty known = waitingCustomers.get(customerId);
+            Customer customer = known != null ? known.getCustomer() : persisted.getCustomer();
+            rebuilt.add(customer, persisted.getSeats(), persisted.getEnqueuedAtMillis());
+            persistedIds.add(customerId);
+        }
+        waitingCustomers = rebuilt;
+
+        Set<Integer> stillArriving = new HashSet<>();
+        for (WaitingParty pending : arrivals) {
+            stillArriving.add(pending.getCustomer().getCustomerId());
+        }
+        queuedCustomerIds.removeIf(customerId -> !persistedIds.contains(customerId) && !stillArriving.contains(customerId));
+        queuedCustomerIds.addAll(persistedIds);
+    }
+
+    private void seatWaitingParties() {
         if (waitingCustomers.isEmpty()) {
             return;
         }
 
-        Customer firstPerson = waitingCustomers.peek();
-        var suitableTable = tableDao.getAvailableTable(firstPerson.getRequiredSeats()); // 🔹 use seats
+        List<Table> vacantTables = tableDao.getVacantTables();
+        Set<Integer> heldTableIds = reservationDao.getTablesHeldForReservations();
+        vacantTables.removeIf(table -> heldTableIds.contains(table.getTableId()));
+
+        List<Waitlist.Seating> plan = waitingCustomers.planSeating(vacantTables, System.currentTimeMillis());
+        if (plan.isEmpty()) {
+            return;
+        }
+
+        List<Waitlist.Seating> savedSeating;
+        try {
+            savedSeating = TransactionManager.inTransaction(() -> saveSeating(plan));
+        } catch (RuntimeException exception) {
+            LoggerUtil.grabLogger().warning("queue seating failed: " + exception.getMessage());
+            return;
+        }
+
+        for (Waitlist.Seating seating : savedSeating) {
+            Customer customer = seating.getParty().getCustomer();
+            Table table = seating.getTable();
+            waitingCustomers.remove(customer.getCustomerId());
+            queuedCustomerIds.remove(customer.getCustomerId());
+            customer.setTableId(table.getTableId());
+            NoShowScheduler.getInstance().register(customer, table.getTableId());
+            LoggerUtil.grabLogger().info(
+                    "auto assigned table " + table.getTableId() +
+                            " (capacity " + table.getCapacity() + ")" +
+                            " to " + customer.getName() +
+                            " from queue (needed " + seating.getParty().getSeats() + " seats)"
+            );
+        }
+    }
+
+    /**
+     * locks the planned parties in waitlist table, books their tables in one statement,
+     * links them in one batch and deletes them from waitlist.
+     * a party or table taken by someone else meanwhile is skipped, that party stays in line.
+     */
+    private List<Waitlist.Seating> saveSeating(List<Waitlist.Seating> plan) {
+        List<Integer> plannedCustomerIds = new ArrayList<>();
+        for (Waitlist.Seating seating : plan) {
+            plannedCustomerIds.add(seating.getParty().getCustomer().getCustomerId());
+        }
+        Set<Integer> stillWaitingIds = waitlistDao.lockWaiting(plannedCustomerIds);
 
-        if (suitableTable != null && firstPerson != null) {
-            boolean booked = tableDao.assignTable(suitableTable.getTableId());
-            boolean linked = customerDao.assignTableToCustomer(firstPerson.getCustomerId(), suitableTable.getTableId());
+        List<Integer> plannedTableIds = new ArrayList<>();
+        for (Waitlist.Seating seating : plan) {
+            if (stillWaitingIds.contains(seating.getParty().getCustomer().getCustomerId())) {
+                plannedTableIds.add(seating.getTable().getTableId());
+            }
+        }
+        Set<Integer> claimedTableIds = tableDao.claimTables(plannedTableIds);
 
-            if (booked && linked) {
-                waitingCustomers.poll();
-                firstPerson.setTableId(suitableTable.getTableId());
-                LoggerUtil.grabLogger().info(
-                        "auto assigned table " + suitableTable.getTableId() +
-                                " (capacity " + suitableTable.getCapacity() + ")" +
-                                " to " + firstPerson.getName() +
-                                " from queue (needed " + firstPerson.getRequiredSeats() + " seats)"
-                );
+        List<Waitlist.Seating> savedSeating = new ArrayList<>();
+        Map<Integer, Integer> tableIdsByCustomer = new LinkedHashMap<>();
+        for (Waitlist.Seating seating : plan) {
+            int customerId = seating.getParty().getCustomer().getCustomerId();
+            int tableId = seating.getTable().getTableId();
+            if (stillWaitingIds.contains(customerId) && claimedTableIds.contains(tableId)) {
+                savedSeating.add(seating);
+                tableIdsByCustomer.put(customerId, tableId);
             }
         }
+        if (tableIdsByCustomer.isEmpty()) {
+            return savedSeating;
+        }
+
+        if (!customerDao.assignTablesToCustomers(tableIdsByCustomer)
+                || waitlistDao.removeAll(tableIdsByCustomer.keySet()) != tableIdsByCustomer.size()) {
+            throw new IllegalStateException("could not seat customers " + tableIdsByCustomer.keySet() + " from waitlist");
+        }
+        return savedSeating;
     }
 }
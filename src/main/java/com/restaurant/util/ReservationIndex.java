@@ -0,0 +1,141 @@
+package com.restaurant.util;
+
+import com.restaurant.config.ApplicationProperties;
+import com.restaurant.model.Reservation;
+import com.restaurant.model.Table;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * in-memory copy of upcoming reservations, one interval map per table.
+ * reservations of one table never overlap (database enforces it), so keeping them in a TreeMap
+ * by start minute is enough: a slot is free when the last reservation starting before its end
+ * is already over at its start. that is one lowerEntry per table, no query.
+ * only reservations inside the horizon (reservation.horizonDays) are kept.
+ * like TableAvailabilityIndex it is a hint, database has the final word when saving.
+ */
+public class ReservationIndex {
+    private static ReservationIndex onlyOneInstance;
+
+    private final int horizonDays;
+    private final int walkInMinutes;
+    private final TreeMap<Integer, List<Integer>> tablesByCapacity = new TreeMap<>();
+    private final Map<Integer, TreeMap<Long, Reservation>> reservationsByTable = new HashMap<>();
+    private boolean loaded;
+
+    private ReservationIndex() {
+        this(ApplicationProperties.getInt("reservation.horizonDays", 60),
+                ApplicationProperties.getInt("reservation.walkInMinutes", 90));
+    }
+
+    ReservationIndex(int horizonDays, int walkInMinutes) {
+        this.horizonDays = horizonDays;
+        this.walkInMinutes = walkInMinutes;
+    }
+
+    public static synchronized ReservationIndex getInstance() {
+        if (onlyOneInstance == null) {
+            onlyOneInstance = new ReservationIndex();
+        }
+        return onlyOneInstance;
+    }
+
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    public int getWalkInMinutes() {
+        return walkInMinutes;
+    }
+
+    /**
+     * replace everything with all tables and the upcoming BOOKED reservations from database.
+     */
+    public synchronized void resync(List<Table> allTables, List<Reservation> upcomingReservations) {
+        tablesByCapacity.clear();
+        reservationsByTable.clear();
+        for (Table table : allTables) {
+            tablesByCapacity.computeIfAbsent(table.getCapacity(), capacity -> new ArrayList<>()).add(table.getTableId());
+            reservationsByTable.put(table.getTableId(), new TreeMap<>());
+        }
+        for (List<Integer> tableIds : tablesByCapacity.values()) {
+            tableIds.sort(Integer::compare);
+        }
+        for (Reservation reservation : upcomingReservations) {
+            add(reservation);
+        }
+        loaded = true;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized void add(Reservation reservation) {
+        TreeMap<Long, Reservation> reservations = reservationsByTable.get(reservation.getTableId());
+        if (reservations != null) {
+            reservations.put(toMinute(reservation.getStartsAt()), reservation);
+        }
+    }
+
+    public synchronized void remove(Reservation reservation) {
+        TreeMap<Long, Reservation> reservations = reservationsByTable.get(reservation.getTableId());
+        if (reservations == null) {
+            return;
+        }
+        long startMinute = toMinute(reservation.getStartsAt());
+        Reservation indexed = reservations.get(startMinute);
+        if (indexed != null && indexed.getReservationId() == reservation.getReservationId()) {
+            reservations.remove(startMinute);
+        }
+    }
+
+    public synchronized boolean isFree(int tableId, Instant from, Instant to) {
+        TreeMap<Long, Reservation> reservations = reservationsByTable.get(tableId);
+        if (reservations == null) {
+            return false;
+        }
+        Map.Entry<Long, Reservation> lastStartingBefore = reservations.lowerEntry(toMinute(to));
+        return lastStartingBefore == null || toMinute(lastStartingBefore.getValue().getEndsAt()) <= toMinute(from);
+    }
+
+    /**
+     * smallest table that fits and has no reservation in this slot, lowest id first. null if none.
+     */
+    public synchronized Table findFreeTable(int partySize, Instant from, Instant to, Set<Integer> excludedTableIds) {
+        for (Map.Entry<Integer, List<Integer>> entry : tablesByCapacity.tailMap(partySize, true).entrySet()) {
+            for (int tableId : entry.getValue()) {
+                if (!excludedTableIds.contains(tableId) && isFree(tableId, from, to)) {
+                    return new Table(tableId, entry.getKey(), false, null);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * tables a walk-in seated now must not get, because their reservation starts within the walk-in window.
+     */
+    public synchronized Set<Integer> getTablesHeldAt(Instant now) {
+        Instant windowEnd = now.plus(Duration.ofMinutes(walkInMinutes));
+        Set<Integer> heldTableIds = new HashSet<>();
+        for (int tableId : reservationsByTable.keySet()) {
+            if (!isFree(tableId, now, windowEnd)) {
+                heldTableIds.add(tableId);
+            }
+        }
+        return heldTableIds;
+    }
+
+    private static long toMinute(Instant time) {
+        return time.getEpochSecond() / 60;
+    }
+}
@@ -0,0 +1,43 @@
+package com.restaurant.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * runs a task on one thread at a time without making other threads wait.
+ * a thread calling request() while the task is already running only leaves a note,
+ * the running thread then goes around once more before it stops, so no request is lost.
+ * the task must be fine to run more times than it was requested.
+ * a failing run is logged and does not swallow the reruns asked for meanwhile.
+ */
+public class SingleWriter {
+    private static final Logger logger = LoggerUtil.grabLogger();
+
+    private final Runnable task;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean rerunRequested = new AtomicBoolean(false);
+
+    public SingleWriter(Runnable task) {
+        this.task = task;
+    }
+
+    /**
+     * run the task now if nobody else is running it, otherwise hand it to the thread that is.
+     */
+    public void request() {
+        rerunRequested.set(true);
+        while (rerunRequested.get() && running.compareAndSet(false, true)) {
+            try {
+                while (rerunRequested.getAndSet(false)) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException exception) {
+                        logger.severe("single writer task failed: " + exception.getMessage());
+                    }
+                }
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+}
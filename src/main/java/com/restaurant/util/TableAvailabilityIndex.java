@@ -0,0 +1,110 @@
+package com.restaurant.util;
+
+import com.restaurant.model.Table;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * in-memory copy of which tables are free, grouped by capacity.
+ * every capacity has a BitSet of free table ids, so best fit is one ceiling lookup
+ * plus one nextSetBit, no database round trip.
+ * it is only a hint: TableDAO still books with a conditional UPDATE and fixes the index
+ * when the hint was stale, and resync() reloads it from database at startup and on every sweep.
+ */
+public class TableAvailabilityIndex {
+    private static TableAvailabilityIndex onlyOneInstance;
+
+    private final TreeMap<Integer, BitSet> freeTablesByCapacity = new TreeMap<>();
+    private final Map<Integer, Integer> capacityByTable = new HashMap<>();
+    private boolean loaded;
+
+    TableAvailabilityIndex() {
+    }
+
+    public static synchronized TableAvailabilityIndex getInstance() {
+        if (onlyOneInstance == null) {
+            onlyOneInstance = new TableAvailabilityIndex();
+        }
+        return onlyOneInstance;
+    }
+
+    /**
+     * replace everything with this full list of tables from database.
+     */
+    public synchronized void resync(List<Table> allTables) {
+        freeTablesByCapacity.clear();
+        capacityByTable.clear();
+        for (Table table : allTables) {
+            capacityByTable.put(table.getTableId(), table.getCapacity());
+            if (!table.isBooked()) {
+                freeTablesByCapacity.computeIfAbsent(table.getCapacity(), capacity -> new BitSet()).set(table.getTableId());
+            }
+        }
+        loaded = true;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * smallest free table that fits, lowest id first, without taking it. null if none.
+     */
+    public synchronized Table peekBestFit(int requiredSeats) {
+        for (Map.Entry<Integer, BitSet> entry : freeTablesByCapacity.tailMap(requiredSeats, true).entrySet()) {
+            int tableId = entry.getValue().nextSetBit(0);
+            if (tableId >= 0) {
+                return new Table(tableId, entry.getKey(), false, null);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * like peekBestFit but skips excluded tables and marks the table taken,
+     * so parallel callers get different hints.
+     */
+    public synchronized Table takeBestFit(int requiredSeats, Set<Integer> excludedTableIds) {
+        for (Map.Entry<Integer, BitSet> entry : freeTablesByCapacity.tailMap(requiredSeats, true).entrySet()) {
+            BitSet freeTables = entry.getValue();
+            for (int tableId = freeTables.nextSetBit(0); tableId >= 0; tableId = freeTables.nextSetBit(tableId + 1)) {
+                if (!excludedTableIds.contains(tableId)) {
+                    markBooked(tableId);
+                    return new Table(tableId, entry.getKey(), false, null);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * mark table taken. returns true if the index had it as free.
+     */
+    public synchronized boolean markBooked(int tableId) {
+        Integer capacity = capacityByTable.get(tableId);
+        BitSet freeTables = capacity == null ? null : freeTablesByCapacity.get(capacity);
+        if (freeTables == null || !freeTables.get(tableId)) {
+            return false;
+        }
+        freeTables.clear(tableId);
+        if (freeTables.isEmpty()) {
+            freeTablesByCapacity.remove(capacity);
+        }
+        return true;
+    }
+
+    /**
+     * mark table free. a table the index never saw is ignored, next resync will bring it in.
+     */
+    public synchronized void markFree(int tableId) {
+        Integer capacity = capacityByTable.get(tableId);
+        if (capacity != null) {
+            freeTablesByCapacity.computeIfAbsent(capacity, size -> new BitSet()).set(tableId);
+        }
+    }
+}
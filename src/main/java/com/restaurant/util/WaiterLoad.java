@@ -0,0 +1,41 @@
+package com.restaurant.util;
+
+/**
+ * snapshot of how busy one waiter is: orders not served yet, tables those orders sit at,
+ * and how many orders the balancer gave them since startup.
+ */
+public final class WaiterLoad {
+    private final int waiterId;
+    private final int openOrders;
+    private final int openTables;
+    private final long assignedOrders;
+
+    public WaiterLoad(int waiterId, int openOrders, int openTables, long assignedOrders) {
+        this.waiterId = waiterId;
+        this.openOrders = openOrders;
+        this.openTables = openTables;
+        this.assignedOrders = assignedOrders;
+    }
+
+    public int getWaiterId() {
+        return waiterId;
+    }
+
+    public int getOpenOrders() {
+        return openOrders;
+    }
+
+    public int getOpenTables() {
+        return openTables;
+    }
+
+    public long getAssignedOrders() {
+        return assignedOrders;
+    }
+
+    @Override
+    public String toString() {
+        return "waiter " + waiterId + " {openOrders=" + openOrders + ", openTables=" + openTables +
+                ", assignedOrders=" + assignedOrders + "}";
+    }
+}
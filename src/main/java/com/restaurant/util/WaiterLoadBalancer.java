@@ -0,0 +1,222 @@
+package com.restaurant.util;
+
+import com.restaurant.model.Order;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * decides which waiter gets a new order.
+ * a table that already has an open order keeps its waiter, so one table is served by one person.
+ * a new table goes to the waiter with the fewest open orders (then fewest tables), kept sorted in a
+ * TreeSet so picking is O(log n). counters change in memory when orders are assigned and served,
+ * and resync() rebuilds everything from orders on every sweep to fix any drift.
+ * an assignment stays in flight until its order is committed or dropped; resync() only sees committed
+ * orders, so it counts the in-flight ones on top and a later rollback takes back exactly what it added.
+ */
+public class WaiterLoadBalancer {
+    private static WaiterLoadBalancer onlyOneInstance;
+
+    private static final Comparator<WaiterCounters> LEAST_LOADED = Comparator
+            .comparingInt((WaiterCounters waiter) -> waiter.openOrders.get())
+            .thenComparingInt(waiter -> waiter.openTables.get())
+            .thenComparingInt(waiter -> waiter.waiterId);
+
+    private final Map<Integer, WaiterCounters> countersByWaiter = new HashMap<>();
+    private final TreeSet<WaiterCounters> waitersByLoad = new TreeSet<>(LEAST_LOADED);
+    private final Map<Integer, TableSection> sectionByTable = new HashMap<>();
+    // assignments handed out whose order is not committed yet, by waiterAndTable(waiterId, tableId)
+    private final Map<Long, Integer> inFlightAssignments = new HashMap<>();
+
+    WaiterLoadBalancer() {
+    }
+
+    public static synchronized WaiterLoadBalancer getInstance() {
+        if (onlyOneInstance == null) {
+            onlyOneInstance = new WaiterLoadBalancer();
+        }
+        return onlyOneInstance;
+    }
+
+    /**
+     * replace everything with the current waiters and their committed orders that are not served yet, oldest first,
+     * plus the assignments still in flight. orders given out since startup are kept per waiter.
+     */
+    public synchronized void resync(List<Integer> waiterIds, List<Order> openOrders) {
+        Map<Integer, WaiterCounters> previousCounters = new HashMap<>(countersByWaiter);
+        countersByWaiter.clear();
+        waitersByLoad.clear();
+        sectionByTable.clear();
+
+        for (int waiterId : waiterIds) {
+            WaiterCounters waiter = new WaiterCounters(waiterId);
+            WaiterCounters previous = previousCounters.get(waiterId);
+            if (previous != null) {
+                waiter.assignedOrders.set(previous.assignedOrders.get());
+            }
+            countersByWaiter.put(waiterId, waiter);
+        }
+        for (Order order : openOrders) {
+            countOpenOrder(order.getWaiterId(), order.getTableId());
+        }
+        for (Map.Entry<Long, Integer> inFlight : inFlightAssignments.entrySet()) {
+            int waiterId = (int) (inFlight.getKey() >> 32);
+            int tableId = (int) (long) inFlight.getKey();
+            for (int i = 0; i < inFlight.getValue(); i++) {
+                countOpenOrder(waiterId, tableId);
+            }
+        }
+        waitersByLoad.addAll(countersByWaiter.values());
+    }
+
+    /**
+     * waiter for a new order at this table, counted as busy right away. -1 when there are no waiters.
+     * the caller reports the order with assignmentSaved or assignmentDropped once it knows.
+     */
+    public synchronized int assignWaiter(int tableId) {
+        TableSection section = sectionByTable.get(tableId);
+        WaiterCounters waiter = section == null ? null : countersByWaiter.get(section.waiterId);
+        if (waiter != null) {
+            section.openOrders++;
+            changeLoad(waiter, 1, 0);
+        } else {
+            if (waitersByLoad.isEmpty()) {
+                return -1;
+            }
+            waiter = waitersByLoad.first();
+            sectionByTable.put(tableId, new TableSection(waiter.waiterId));
+            changeLoad(waiter, 1, 1);
+        }
+        waiter.assignedOrders.incrementAndGet();
+        inFlightAssignments.merge(waiterAndTable(waiter.waiterId, tableId), 1, Integer::sum);
+        return waiter.waiterId;
+    }
+
+    /**
+     * the assigned order is committed, from now on resync() finds it in orders.
+     */
+    public synchronized void assignmentSaved(int waiterId, int tableId) {
+        leaveFlight(waiterId, tableId);
+    }
+
+    /**
+     * the assigned order was never saved or its transaction rolled back, so its load is taken back.
+     */
+    public synchronized void assignmentDropped(int waiterId, int tableId) {
+        if (leaveFlight(waiterId, tableId)) {
+            orderClosed(waiterId, tableId);
+        }
+    }
+
+    /**
+     * the order is off the waiter's hands because it was served.
+     */
+    public synchronized void orderClosed(int waiterId, int tableId) {
+        WaiterCounters waiter = countersByWaiter.get(waiterId);
+        if (waiter == null) {
+            return;
+        }
+        int tablesClosed = 0;
+        TableSection section = sectionByTable.get(tableId);
+        if (section != null && section.waiterId == waiterId && --section.openOrders <= 0) {
+            sectionByTable.remove(tableId);
+            tablesClosed = 1;
+        }
+        changeLoad(waiter, -1, -tablesClosed);
+    }
+
+    /**
+     * load of every waiter, least busy first.
+     */
+    public synchronized List<WaiterLoad> getLoads() {
+        List<WaiterLoad> loads = new ArrayList<>(waitersByLoad.size());
+        for (WaiterCounters waiter : waitersByLoad) {
+            loads.add(waiter.snapshot());
+        }
+        return loads;
+    }
+
+    /**
+     * load of one waiter, null if unknown. reads the counters without taking the lock.
+     */
+    public WaiterLoad getLoad(int waiterId) {
+        WaiterCounters waiter;
+        synchronized (this) {
+            waiter = countersByWaiter.get(waiterId);
+        }
+        return waiter == null ? null : waiter.snapshot();
+    }
+
+    // resync only: counters are changed before the waiters go into the TreeSet
+    private void countOpenOrder(int waiterId, int tableId) {
+        WaiterCounters waiter = countersByWaiter.get(waiterId);
+        if (waiter == null) {
+            return;
+        }
+        waiter.openOrders.incrementAndGet();
+        TableSection section = sectionByTable.get(tableId);
+        if (section == null) {
+            sectionByTable.put(tableId, new TableSection(waiterId));
+            waiter.openTables.incrementAndGet();
+        } else if (section.waiterId == waiterId) {
+            section.openOrders++;
+        }
+    }
+
+    // false when this assignment was not in flight, so nothing of it is counted any more
+    private boolean leaveFlight(int waiterId, int tableId) {
+        long key = waiterAndTable(waiterId, tableId);
+        Integer inFlight = inFlightAssignments.get(key);
+        if (inFlight == null) {
+            return false;
+        }
+        if (inFlight == 1) {
+            inFlightAssignments.remove(key);
+        } else {
+            inFlightAssignments.put(key, inFlight - 1);
+        }
+        return true;
+    }
+
+    private static long waiterAndTable(int waiterId, int tableId) {
+        return ((long) waiterId << 32) | (tableId & 0xFFFFFFFFL);
+    }
+
+    // the TreeSet is sorted by the counters, so a waiter is taken out before they change and put back after
+    private void changeLoad(WaiterCounters waiter, int orderChange, int tableChange) {
+        waitersByLoad.remove(waiter);
+        waiter.openOrders.updateAndGet(openOrders -> Math.max(0, openOrders + orderChange));
+        waiter.openTables.updateAndGet(openTables -> Math.max(0, openTables + tableChange));
+        waitersByLoad.add(waiter);
+    }
+
+    private static final class WaiterCounters {
+        private final int waiterId;
+        private final AtomicInteger openOrders = new AtomicInteger();
+        private final AtomicInteger openTables = new AtomicInteger();
+        private final AtomicLong assignedOrders = new AtomicLong();
+
+        private WaiterCounters(int waiterId) {
+            this.waiterId = waiterId;
+        }
+
+        private WaiterLoad snapshot() {
+            return new WaiterLoad(waiterId, openOrders.get(), openTables.get(), assignedOrders.get());
+        }
+    }
+
+    private static final class TableSection {
+        private final int waiterId;
+        private int openOrders = 1;
+
+        private TableSection(int waiterId) {
+            this.waiterId = waiterId;
+        }
+    }
+}
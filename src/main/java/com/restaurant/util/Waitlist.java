@@ -0,0 +1,139 @@
+package com.restaurant.util;
+
+import com.restaurant.model.Customer;
+import com.restaurant.model.Table;
+import com.restaurant.model.WaitingParty;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * waiting line split by party size.
+ * every party size has its own FIFO line, so a big party at the front
+ * no longer blocks small parties when small tables get free.
+ * a party waiting longer than the aging limit is served before fresher parties that also fit.
+ * not thread safe, only the single writer inside QueueManager touches it.
+ */
+public class Waitlist {
+    private final TreeMap<Integer, ArrayDeque<WaitingParty>> partiesBySeats = new TreeMap<>();
+    private final Map<Integer, WaitingParty> partiesByCustomer = new HashMap<>();
+    private final long agingMillis;
+
+    public Waitlist(long agingMillis) {
+        this.agingMillis = agingMillis;
+    }
+
+    /**
+     * one planned match of a waiting party to a vacant table.
+     */
+    public static final class Seating {
+        private final WaitingParty party;
+        private final Table table;
+
+        public Seating(WaitingParty party, Table table) {
+            this.party = party;
+            this.table = table;
+        }
+
+        public WaitingParty getParty() {
+            return party;
+        }
+
+        public Table getTable() {
+            return table;
+        }
+    }
+
+    /**
+     * put party at the back of line for its size. returns false when customer is already waiting.
+     */
+    public boolean add(Customer customer, int seats, long enqueuedAtMillis) {
+        if (partiesByCustomer.containsKey(customer.getCustomerId())) {
+            return false;
+        }
+        WaitingParty party = new WaitingParty(customer, seats, enqueuedAtMillis);
+        partiesBySeats.computeIfAbsent(seats, size -> new ArrayDeque<>()).addLast(party);
+        partiesByCustomer.put(customer.getCustomerId(), party);
+        return true;
+    }
+
+    /**
+     * matches many vacant tables to waiting parties in one pass, seating as many guests as possible.
+     * aged parties go first by arrival, then biggest parties first, each taking the smallest table that fits.
+     * with tables open to every party not bigger than them, this greedy order seats the most guests.
+     * nothing is removed from line here, caller removes parties once the seating is saved.
+     */
+    public List<Seating> planSeating(List<Table> vacantTables, long nowMillis) {
+        List<Seating> plan = new ArrayList<>();
+        if (vacantTables.isEmpty() || partiesByCustomer.isEmpty()) {
+            return plan;
+        }
+
+        TreeMap<Integer, ArrayDeque<Table>> tablesByCapacity = new TreeMap<>();
+        for (Table table : vacantTables) {
+            tablesByCapacity.computeIfAbsent(table.getCapacity(), capacity -> new ArrayDeque<>()).addLast(table);
+        }
+
+        List<WaitingParty> parties = new ArrayList<>(partiesByCustomer.values());
+        parties.sort((first, second) -> {
+            boolean firstAged = nowMillis - first.getEnqueuedAtMillis() >= agingMillis;
+            boolean secondAged = nowMillis - second.getEnqueuedAtMillis() >= agingMillis;
+            if (firstAged != secondAged) {
+                return firstAged ? -1 : 1;
+            }
+            if (!firstAged && first.getSeats() != second.getSeats()) {
+                return Integer.compare(second.getSeats(), first.getSeats());
+            }
+            return Long.compare(first.getEnqueuedAtMillis(), second.getEnqueuedAtMillis());
+        });
+
+        for (WaitingParty party : parties) {
+            Map.Entry<Integer, ArrayDeque<Table>> smallestFitting = tablesByCapacity.ceilingEntry(party.getSeats());
+            if (smallestFitting == null) {
+                continue;
+            }
+            ArrayDeque<Table> tables = smallestFitting.getValue();
+            plan.add(new Seating(party, tables.pollFirst()));
+            if (tables.isEmpty()) {
+                tablesByCapacity.remove(smallestFitting.getKey());
+                if (tablesByCapacity.isEmpty()) {
+                    break;
+                }
+            }
+        }
+        return plan;
+    }
+
+    public boolean remove(int customerId) {
+        WaitingParty party = partiesByCustomer.remove(customerId);
+        if (party == null) {
+            return false;
+        }
+        ArrayDeque<WaitingParty> line = partiesBySeats.get(party.getSeats());
+        line.remove(party);
+        if (line.isEmpty()) {
+            partiesBySeats.remove(party.getSeats());
+        }
+        return true;
+    }
+
+    public WaitingParty get(int customerId) {
+        return partiesByCustomer.get(customerId);
+    }
+
+    public boolean contains(int customerId) {
+        return partiesByCustomer.containsKey(customerId);
+    }
+
+    public int size() {
+        return partiesByCustomer.size();
+    }
+
+    public boolean isEmpty() {
+        return partiesByCustomer.isEmpty();
+    }
+}
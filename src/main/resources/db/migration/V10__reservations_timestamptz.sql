@@ -0,0 +1,28 @@
+-- Reservation times become points in time. as TIMESTAMP they were wall-clock values written with the
+-- app's time zone and compared against NOW() in the database's, which shifted every window when the two
+-- differed. existing rows are read in this session's time zone.
+-- the overlap rule is built on tsrange, so it is dropped before the type change and rebuilt on tstzrange
+DO $$
+DECLARE
+    overlap_constraint TEXT;
+BEGIN
+    SELECT conname INTO overlap_constraint FROM pg_constraint
+    WHERE conrelid = 'reservations'::regclass AND contype = 'x';
+    IF overlap_constraint IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE reservations DROP CONSTRAINT %I', overlap_constraint);
+    END IF;
+END $$;
+
+ALTER TABLE reservations
+    ALTER COLUMN starts_at TYPE TIMESTAMPTZ,
+    ALTER COLUMN ends_at TYPE TIMESTAMPTZ;
+
+ALTER TABLE reservations ADD CONSTRAINT reservations_no_overlap
+    EXCLUDE USING gist (table_id WITH =, tstzrange(starts_at, ends_at) WITH &&) WHERE (status = 'BOOKED');
+
+-- guests who never came are marked NO_SHOW once the no-show window after their start has passed
+ALTER TABLE reservations DROP CONSTRAINT IF EXISTS reservations_status_check;
+ALTER TABLE reservations ADD CONSTRAINT reservations_status_check
+    CHECK (status IN ('BOOKED', 'SEATED', 'CANCELLED', 'NO_SHOW'));
+
+CREATE INDEX IF NOT EXISTS idx_reservations_booked_start ON reservations (starts_at) WHERE status = 'BOOKED';
@@ -0,0 +1,9 @@
+-- Waiting line when no table is free
+CREATE TABLE IF NOT EXISTS waitlist (
+    waitlist_id BIGSERIAL PRIMARY KEY,
+    customer_id INT UNIQUE NOT NULL REFERENCES customers(customer_id) ON DELETE CASCADE,
+    party_size INT NOT NULL,
+    enqueued_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_waitlist_party_size ON waitlist (party_size, waitlist_id);
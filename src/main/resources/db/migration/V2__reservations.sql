@@ -0,0 +1,16 @@
+-- Reservations for a later time slot, never overlapping on one table
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE TABLE IF NOT EXISTS reservations (
+    reservation_id SERIAL PRIMARY KEY,
+    customer_id INT NOT NULL REFERENCES customers(customer_id) ON DELETE CASCADE,
+    table_id INT NOT NULL REFERENCES tables(table_id) ON DELETE CASCADE,
+    party_size INT NOT NULL,
+    starts_at TIMESTAMP NOT NULL,
+    ends_at TIMESTAMP NOT NULL,
+    status VARCHAR(20) DEFAULT 'BOOKED' CHECK (status IN ('BOOKED','SEATED','CANCELLED')),
+    CHECK (ends_at > starts_at),
+    EXCLUDE USING gist (table_id WITH =, tsrange(starts_at, ends_at) WITH &&) WHERE (status = 'BOOKED')
+);
+
+CREATE INDEX IF NOT EXISTS idx_reservations_customer ON reservations (customer_id, starts_at) WHERE status = 'BOOKED';
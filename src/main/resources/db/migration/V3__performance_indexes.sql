@@ -0,0 +1,18 @@
+-- Orders: every listing pages by (order_time, order_id), so that is the tail of each index.
+-- open orders are the only ones read by status, finished ones are reached through the customer.
+CREATE INDEX IF NOT EXISTS idx_orders_open_status ON orders (status, order_time, order_id) WHERE status <> 'COMPLETED';
+CREATE INDEX IF NOT EXISTS idx_orders_customer_time ON orders (customer_id, order_time, order_id);
+CREATE INDEX IF NOT EXISTS idx_orders_waiter_status ON orders (waiter_id, status, order_time, order_id);
+
+-- Child rows looked up by their parent
+CREATE INDEX IF NOT EXISTS idx_order_items_order ON order_items (order_id);
+CREATE INDEX IF NOT EXISTS idx_bills_order ON bills (order_id);
+CREATE INDEX IF NOT EXISTS idx_payments_bill ON payments (bill_id);
+
+-- Customers by login and by the table they sit at (most have none)
+CREATE INDEX IF NOT EXISTS idx_customers_user ON customers (user_id);
+CREATE INDEX IF NOT EXISTS idx_customers_table ON customers (table_id) WHERE table_id IS NOT NULL;
+
+-- Tables: best-fit search over free tables, and the no-show sweep over booked ones
+CREATE INDEX IF NOT EXISTS idx_tables_free_by_capacity ON tables (capacity, table_id) WHERE is_booked = FALSE;
+CREATE INDEX IF NOT EXISTS idx_tables_booked_since ON tables (booking_time) WHERE is_booked = TRUE;
@@ -0,0 +1,9 @@
+-- How many items of an order are still to cook. kept up to date by the same statements that add
+-- or finish items, so finding out whether an order is done never needs a scan of order_items.
+ALTER TABLE orders ADD COLUMN items_remaining INT NOT NULL DEFAULT 0 CHECK (items_remaining >= 0);
+
+UPDATE orders o
+SET items_remaining = (SELECT COUNT(*)
+                       FROM order_items oi
+                       WHERE oi.order_id = o.order_id
+                         AND oi.status IN ('PENDING', 'COOKING'));
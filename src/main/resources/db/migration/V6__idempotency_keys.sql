@@ -0,0 +1,6 @@
+-- Key sent by the client with each order, bill and payment it submits. a retry carries the same key,
+-- hits the unique index and gets the first result back instead of creating a second row.
+-- rows made without a key stay NULL, which never clashes.
+ALTER TABLE orders ADD COLUMN idempotency_key VARCHAR(64) UNIQUE;
+ALTER TABLE bills ADD COLUMN idempotency_key VARCHAR(64) UNIQUE;
+ALTER TABLE payments ADD COLUMN idempotency_key VARCHAR(64) UNIQUE;
@@ -0,0 +1,46 @@
+-- Running tab of each seated customer: the total and one line per dish and price, added to by the
+-- same transaction that adds the items. a bill or "what do I owe" reads the tab instead of
+-- summing every order of the visit again. a tab stays open until its table is freed.
+CREATE TABLE IF NOT EXISTS tabs (
+    tab_id SERIAL PRIMARY KEY,
+    customer_id INT NOT NULL REFERENCES customers(customer_id) ON DELETE CASCADE,
+    table_id INT NOT NULL REFERENCES tables(table_id) ON DELETE CASCADE,
+    total_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    last_order_id INT REFERENCES orders(order_id) ON DELETE SET NULL,
+    is_open BOOLEAN NOT NULL DEFAULT TRUE,
+    opened_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- at most one open tab per customer and table, the key the upsert in TabDAO lands on
+CREATE UNIQUE INDEX IF NOT EXISTS idx_tabs_open ON tabs (customer_id, table_id) WHERE is_open;
+
+CREATE TABLE IF NOT EXISTS tab_lines (
+    tab_id INT NOT NULL REFERENCES tabs(tab_id) ON DELETE CASCADE,
+    menu_id INT NOT NULL REFERENCES menu(menu_id) ON DELETE CASCADE,
+    item_name VARCHAR(100) NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    quantity INT NOT NULL,
+    line_total DECIMAL(12,2) NOT NULL,
+    PRIMARY KEY (tab_id, menu_id, price)
+);
+
+-- bills made from a tab point at it, so a bill can be shown again with its lines
+ALTER TABLE bills ADD COLUMN tab_id INT REFERENCES tabs(tab_id) ON DELETE SET NULL;
+
+-- open tabs for everyone seated right now, from what they ordered at their table so far
+INSERT INTO tabs (customer_id, table_id, total_amount, last_order_id)
+SELECT c.customer_id, c.table_id, COALESCE(SUM(oi.quantity * m.price), 0), MAX(o.order_id)
+FROM customers c
+JOIN orders o ON o.customer_id = c.customer_id AND o.table_id = c.table_id
+JOIN order_items oi ON oi.order_id = o.order_id
+JOIN menu m ON m.menu_id = oi.menu_id
+WHERE c.table_id IS NOT NULL
+GROUP BY c.customer_id, c.table_id;
+
+INSERT INTO tab_lines (tab_id, menu_id, item_name, price, quantity, line_total)
+SELECT t.tab_id, m.menu_id, m.item_name, m.price, SUM(oi.quantity), SUM(oi.quantity * m.price)
+FROM tabs t
+JOIN orders o ON o.customer_id = t.customer_id AND o.table_id = t.table_id
+JOIN order_items oi ON oi.order_id = o.order_id
+JOIN menu m ON m.menu_id = oi.menu_id
+GROUP BY t.tab_id, m.menu_id, m.item_name, m.price;
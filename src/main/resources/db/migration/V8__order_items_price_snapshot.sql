@@ -0,0 +1,13 @@
+-- Dish name and unit price as they were when the item was ordered. bills, tabs and kitchen lists
+-- read them from order_items alone, and a later menu edit no longer reprices what was already ordered.
+ALTER TABLE order_items ADD COLUMN item_name VARCHAR(100);
+ALTER TABLE order_items ADD COLUMN unit_price DECIMAL(10,2);
+
+UPDATE order_items oi
+SET item_name = m.item_name,
+    unit_price = m.price
+FROM menu m
+WHERE m.menu_id = oi.menu_id;
+
+ALTER TABLE order_items ALTER COLUMN item_name SET NOT NULL;
+ALTER TABLE order_items ALTER COLUMN unit_price SET NOT NULL;
@@ -0,0 +1,21 @@
+-- Lines of each bill, copied from its tab by the statement that makes the bill, so a bill shown
+-- again always adds up to its own total. billing also closes the tab, later orders start a new one
+-- and the same items are never billed twice.
+CREATE TABLE IF NOT EXISTS bill_lines (
+    bill_id INT NOT NULL REFERENCES bills(bill_id) ON DELETE CASCADE,
+    menu_id INT NOT NULL REFERENCES menu(menu_id) ON DELETE CASCADE,
+    item_name VARCHAR(100) NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    quantity INT NOT NULL,
+    line_total DECIMAL(12,2) NOT NULL,
+    PRIMARY KEY (bill_id, menu_id, price)
+);
+
+-- bills already made from a tab get the lines their tab has now, and that tab is closed
+INSERT INTO bill_lines (bill_id, menu_id, item_name, price, quantity, line_total)
+SELECT b.bill_id, l.menu_id, l.item_name, l.price, l.quantity, l.line_total
+FROM bills b
+JOIN tab_lines l ON l.tab_id = b.tab_id;
+
+UPDATE tabs SET is_open = FALSE
+WHERE is_open AND tab_id IN (SELECT tab_id FROM bills WHERE tab_id IS NOT NULL);
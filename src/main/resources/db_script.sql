@@ -81,6 +81,9 @@ CREATE TABLE payments (
     payment_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Everything added after this baseline (new tables, indexes) lives in db/migration
+-- and is applied by the application itself at startup, see MigrationRunner.
+
 -- Step 3: Insert Sample Data
 
 -- Admin User
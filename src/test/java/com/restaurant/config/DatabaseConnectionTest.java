@@ -0,0 +1,56 @@
+package com.restaurant.config;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseConnectionTest {
+
+    @Test
+    void closedConnectionIsReusedFromPool() throws SQLException {
+        Connection firstPhysicalConnection;
+        try (Connection firstLease = DatabaseConnection.fetchConnection()) {
+            firstPhysicalConnection = firstLease.unwrap(Connection.class);
+        }
+
+        try (Connection secondLease = DatabaseConnection.fetchConnection()) {
+            assertSame(firstPhysicalConnection, secondLease.unwrap(Connection.class));
+        }
+    }
+
+    @Test
+    void returnedConnectionCannotBeUsedAgain() throws SQLException {
+        Connection lease = DatabaseConnection.fetchConnection();
+        lease.close();
+
+        assertTrue(lease.isClosed());
+        assertThrows(SQLException.class, () -> lease.prepareStatement("SELECT 1"));
+    }
+
+    @Test
+    void rolledBackTransactionStateIsResetOnReturn() throws SQLException {
+        try (Connection lease = DatabaseConnection.fetchConnection()) {
+            lease.setAutoCommit(false);
+        }
+
+        try (Connection lease = DatabaseConnection.fetchConnection()) {
+            assertTrue(lease.getAutoCommit());
+        }
+    }
+
+    @Test
+    void metricsCountBorrowedConnections() throws SQLException {
+        long borrowedBefore = DatabaseConnection.getPoolMetrics().getBorrowCount();
+
+        try (Connection lease = DatabaseConnection.fetchConnection()) {
+            PoolMetrics whileBorrowed = DatabaseConnection.getPoolMetrics();
+            assertTrue(whileBorrowed.getActiveConnections() >= 1);
+            assertTrue(whileBorrowed.getTotalConnections() <= whileBorrowed.getMaxSize());
+        }
+
+        assertEquals(borrowedBefore + 1, DatabaseConnection.getPoolMetrics().getBorrowCount());
+    }
+}
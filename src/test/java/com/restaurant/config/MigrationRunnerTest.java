@@ -0,0 +1,40 @@
+package com.restaurant.config;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationRunnerTest {
+
+    @Test
+    void secondRunAppliesNothing() {
+        MigrationRunner.migrate();
+        assertEquals(0, MigrationRunner.migrate());
+    }
+
+    @Test
+    void everyAppliedScriptIsRecordedWithChecksum() throws SQLException {
+        MigrationRunner.migrate();
+        try (Connection conn = DatabaseConnection.fetchConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT version, checksum FROM schema_history ORDER BY version");
+             ResultSet rs = ps.executeQuery()) {
+            int expectedVersion = 1;
+            while (rs.next()) {
+                assertEquals(expectedVersion++, rs.getInt("version"));
+                assertEquals(64, rs.getString("checksum").length());
+            }
+            assertTrue(expectedVersion > 1);
+        }
+    }
+
+    @Test
+    void checksumChangesWithScriptText() {
+        assertEquals(MigrationRunner.sha256("SELECT 1;"), MigrationRunner.sha256("SELECT 1;"));
+        assertNotEquals(MigrationRunner.sha256("SELECT 1;"), MigrationRunner.sha256("SELECT 2;"));
+    }
+}
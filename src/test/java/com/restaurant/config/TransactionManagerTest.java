@@ -0,0 +1,98 @@
+package com.restaurant.config;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionManagerTest {
+
+    private static final int TEST_CAPACITY = 97;
+
+    @AfterEach
+    void cleanup() {
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            conn.prepareStatement("DELETE FROM tables WHERE capacity = " + TEST_CAPACITY).executeUpdate();
+        } catch (Exception e) {
+            throw new RuntimeException("Test cleanup failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Test
+    void daoCallsInsideScopeShareOneConnection() throws SQLException {
+        boolean sameConnection = TransactionManager.inTransaction(() -> {
+            try (Connection first = DatabaseConnection.fetchConnection();
+                 Connection second = DatabaseConnection.fetchConnection()) {
+                return first.unwrap(Connection.class) == second.unwrap(Connection.class);
+            }
+        });
+        assertTrue(sameConnection);
+    }
+
+    @Test
+    void exceptionRollsBackEveryStatement() {
+        assertThrows(IllegalStateException.class, () -> TransactionManager.inTransaction(() -> {
+            insertTestTable();
+            insertTestTable();
+            throw new IllegalStateException("second step failed");
+        }));
+
+        assertEquals(0, countTestTables());
+    }
+
+    @Test
+    void successfulScopeCommitsOnce() throws SQLException {
+        TransactionManager.inTransaction(() -> {
+            insertTestTable();
+            insertTestTable();
+            return null;
+        });
+
+        assertEquals(2, countTestTables());
+        assertFalse(TransactionManager.isActive());
+    }
+
+    @Test
+    void hooksRunOnlyForTheWayTheScopeEnded() throws SQLException {
+        List<String> events = new ArrayList<>();
+        TransactionManager.inTransaction(() -> {
+            TransactionManager.afterCommit(() -> events.add("committed"));
+            TransactionManager.afterRollback(() -> events.add("rolled back"));
+            assertTrue(events.isEmpty());
+            return null;
+        });
+        assertThrows(IllegalStateException.class, () -> TransactionManager.inTransaction(() -> {
+            TransactionManager.afterCommit(() -> events.add("committed"));
+            TransactionManager.afterRollback(() -> events.add("rolled back"));
+            throw new IllegalStateException("failed");
+        }));
+
+        assertEquals(List.of("committed", "rolled back"), events);
+    }
+
+    private static void insertTestTable() throws SQLException {
+        try (Connection conn = DatabaseConnection.fetchConnection();
+             PreparedStatement ps = conn.prepareStatement("INSERT INTO tables (capacity, is_booked) VALUES (?, FALSE)")) {
+            ps.setInt(1, TEST_CAPACITY);
+            ps.executeUpdate();
+        }
+    }
+
+    private static int countTestTables() {
+        try (Connection conn = DatabaseConnection.fetchConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM tables WHERE capacity = ?")) {
+            ps.setInt(1, TEST_CAPACITY);
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.restaurant.dao;
+
+import com.restaurant.config.DatabaseConnection;
+import com.restaurant.model.Bill;
+import com.restaurant.model.BillLine;
+import com.restaurant.model.OrderLine;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BillDAOTest {
+
+    private BillDAO billDataAccessObjectForTesting;
+    private int testUserIdentifier;
+    private int testCustomerIdentifier;
+    private int testTableIdentifier;
+
+    @BeforeAll
+    void setupAll() {
+        billDataAccessObjectForTesting = new BillDAO();
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            PreparedStatement userInsert = conn.prepareStatement(
+                    "INSERT INTO users (username, password, role) VALUES ('billinguser', 'testpass', 'CUSTOMER') RETURNING user_id"
+            );
+            ResultSet userResult = userInsert.executeQuery();
+            userResult.next();
+            testUserIdentifier = userResult.getInt("user_id");
+
+            PreparedStatement customerInsert = conn.prepareStatement(
+                    "INSERT INTO customers (user_id, name) VALUES (?, 'JUnit Diner') RETURNING customer_id"
+            );
+            customerInsert.setInt(1, testUserIdentifier);
+            ResultSet customerResult = customerInsert.executeQuery();
+            customerResult.next();
+            testCustomerIdentifier = customerResult.getInt("customer_id");
+
+            ResultSet tableResult = conn.prepareStatement(
+                    "INSERT INTO tables (capacity, is_booked) VALUES (2, TRUE) RETURNING table_id"
+            ).executeQuery();
+            tableResult.next();
+            testTableIdentifier = tableResult.getInt("table_id");
+        } catch (Exception e) {
+            throw new RuntimeException("Test setup failed: " + e.getMessage(), e);
+        }
+    }
+
+    @AfterAll
+    void cleanupAll() {
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            conn.prepareStatement("DELETE FROM orders WHERE customer_id = " + testCustomerIdentifier).executeUpdate();
+            conn.prepareStatement("DELETE FROM tables WHERE table_id = " + testTableIdentifier).executeUpdate();
+            conn.prepareStatement("DELETE FROM customers WHERE customer_id = " + testCustomerIdentifier).executeUpdate();
+            conn.prepareStatement("DELETE FROM users WHERE user_id = " + testUserIdentifier).executeUpdate();
+        } catch (Exception e) {
+            System.err.println("Cleanup failed: " + e.getMessage());
+        }
+    }
+
+    // two orders, menu item 1 in both, so the tab has to add them up into one line.
+    // billing closes the tab, so every test puts its own orders on a fresh one
+    private void placeTwoOrders() throws Exception {
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            PreparedStatement orderInsert = conn.prepareStatement(
+                    "INSERT INTO orders (customer_id, table_id, status) VALUES (?, ?, 'SERVED') RETURNING order_id"
+            );
+            OrderItemDAO orderItemDao = new OrderItemDAO();
+            for (int i = 0; i < 2; i++) {
+                orderInsert.setInt(1, testCustomerIdentifier);
+                orderInsert.setInt(2, testTableIdentifier);
+                ResultSet orderResult = orderInsert.executeQuery();
+                orderResult.next();
+                assertTrue(orderItemDao.addItemsToOrder(orderResult.getInt("order_id"),
+                        List.of(new OrderLine(1, 2), new OrderLine(2, 1))));
+            }
+        }
+    }
+
+    @Test
+    void combinedBillComesWithSummedLines() throws Exception {
+        placeTwoOrders();
+        long tabTotalPaise = new TabDAO().getOpenTabTotalPaise(testCustomerIdentifier, testTableIdentifier);
+        Bill bill = billDataAccessObjectForTesting.generateCombinedBill(testCustomerIdentifier, testTableIdentifier, "test-bill-lines");
+
+        assertNotNull(bill);
+        assertEquals(2, bill.getLines().size());
+        for (BillLine billLine : bill.getLines()) {
+            assertEquals(billLine.getMenuId() == 1 ? 4 : 2, billLine.getQuantity());
+            assertEquals(billLine.getPricePaise() * billLine.getQuantity(), billLine.getLineTotalPaise());
+        }
+        assertEquals(bill.getLinesTotalPaise(), bill.getTotalPaise());
+        assertEquals(tabTotalPaise, bill.getTotalPaise());
+        assertEquals(0, new TabDAO().getOpenTabTotalPaise(testCustomerIdentifier, testTableIdentifier));
+    }
+
+    @Test
+    void retriedBillReturnsTheSameBill() throws Exception {
+        placeTwoOrders();
+        Bill firstBill = billDataAccessObjectForTesting.generateCombinedBill(testCustomerIdentifier, testTableIdentifier, "test-bill-retry");
+        Bill retriedBill = billDataAccessObjectForTesting.generateCombinedBill(testCustomerIdentifier, testTableIdentifier, "test-bill-retry");
+
+        assertEquals(firstBill.getBillId(), retriedBill.getBillId());
+        assertEquals(firstBill.getLines().size(), retriedBill.getLines().size());
+    }
+
+    @Test
+    void orderingAfterBillingLeavesTheBillAsItWas() throws Exception {
+        placeTwoOrders();
+        Bill bill = billDataAccessObjectForTesting.generateCombinedBill(testCustomerIdentifier, testTableIdentifier, "test-bill-frozen");
+        assertNotNull(bill);
+
+        placeTwoOrders();
+        Bill shownAgain = billDataAccessObjectForTesting.getBill(bill.getBillId());
+        Bill nextBill = billDataAccessObjectForTesting.generateCombinedBill(testCustomerIdentifier, testTableIdentifier, "test-bill-frozen-next");
+
+        assertEquals(bill.getTotalPaise(), shownAgain.getTotalPaise());
+        assertEquals(bill.getLines().size(), shownAgain.getLines().size());
+        assertEquals(shownAgain.getLinesTotalPaise(), shownAgain.getTotalPaise());
+        assertNotNull(nextBill);
+        assertNotEquals(bill.getBillId(), nextBill.getBillId());
+        assertEquals(bill.getTotalPaise(), nextBill.getTotalPaise());
+    }
+}
@@ -0,0 +1,104 @@
+package com.restaurant.dao;
+
+import com.restaurant.config.DatabaseConnection;
+import com.restaurant.model.Order;
+import com.restaurant.model.OrderStatus;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderDAOTest {
+
+    private static final int TEST_ORDER_COUNT = 5;
+
+    private OrderDAO orderDataAccessObjectForTesting;
+    private int testUserIdentifier;
+    private int testCustomerIdentifier;
+
+    @BeforeAll
+    void setupAll() {
+        orderDataAccessObjectForTesting = new OrderDAO();
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            PreparedStatement userInsert = conn.prepareStatement(
+                    "INSERT INTO users (username, password, role) VALUES ('orderhistoryuser', 'testpass', 'CUSTOMER') RETURNING user_id"
+            );
+            ResultSet userResult = userInsert.executeQuery();
+            userResult.next();
+            testUserIdentifier = userResult.getInt("user_id");
+
+            PreparedStatement customerInsert = conn.prepareStatement(
+                    "INSERT INTO customers (user_id, name) VALUES (?, 'JUnit Regular') RETURNING customer_id"
+            );
+            customerInsert.setInt(1, testUserIdentifier);
+            ResultSet customerResult = customerInsert.executeQuery();
+            customerResult.next();
+            testCustomerIdentifier = customerResult.getInt("customer_id");
+
+            PreparedStatement orderInsert = conn.prepareStatement(
+                    "INSERT INTO orders (customer_id, status, order_time) VALUES (?, 'COMPLETED', TIMESTAMP '2020-01-01 12:00:00')"
+            );
+            for (int i = 0; i < TEST_ORDER_COUNT; i++) {
+                orderInsert.setInt(1, testCustomerIdentifier);
+                orderInsert.executeUpdate();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Test setup failed: " + e.getMessage(), e);
+        }
+    }
+
+    @AfterAll
+    void cleanupAll() {
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            PreparedStatement customerDelete = conn.prepareStatement("DELETE FROM customers WHERE user_id = ?");
+            customerDelete.setInt(1, testUserIdentifier);
+            customerDelete.executeUpdate();
+
+            PreparedStatement userDelete = conn.prepareStatement("DELETE FROM users WHERE user_id = ?");
+            userDelete.setInt(1, testUserIdentifier);
+            userDelete.executeUpdate();
+        } catch (Exception e) {
+            System.err.println("Cleanup failed: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void customerHistoryPagesCoverEveryOrderOnceNewestFirst() {
+        List<Order> allPages = new ArrayList<>();
+        Order lastOrder = null;
+        List<Order> page;
+        do {
+            page = orderDataAccessObjectForTesting.getOrdersByCustomer(testCustomerIdentifier, lastOrder, 2);
+            allPages.addAll(page);
+            if (!page.isEmpty()) {
+                lastOrder = page.get(page.size() - 1);
+            }
+        } while (page.size() == 2);
+
+        assertEquals(TEST_ORDER_COUNT, allPages.size());
+        for (int i = 1; i < allPages.size(); i++) {
+            assertTrue(allPages.get(i).getOrderId() < allPages.get(i - 1).getOrderId());
+        }
+    }
+
+    @Test
+    void streamingHandsOverEveryOrder() {
+        Set<Integer> streamedIds = new HashSet<>();
+        int streamedCount = orderDataAccessObjectForTesting.streamOrdersByStatus(OrderStatus.COMPLETED, order -> {
+            if (order.getCustomerId() == testCustomerIdentifier) {
+                streamedIds.add(order.getOrderId());
+            }
+        });
+
+        assertTrue(streamedCount >= TEST_ORDER_COUNT);
+        assertEquals(TEST_ORDER_COUNT, streamedIds.size());
+    }
+}
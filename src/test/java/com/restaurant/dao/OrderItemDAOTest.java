@@ -0,0 +1,65 @@
+package com.restaurant.dao;
+
+import com.restaurant.config.DatabaseConnection;
+import com.restaurant.model.OrderItem;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderItemDAOTest {
+
+    private OrderItemDAO orderItemDataAccessObjectForTesting;
+    private int testMenuIdentifier;
+    private int testOrderIdentifier;
+
+    @BeforeAll
+    void setupAll() {
+        orderItemDataAccessObjectForTesting = new OrderItemDAO();
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            ResultSet menuResult = conn.prepareStatement(
+                    "INSERT INTO menu (item_name, price, is_available) VALUES ('JUnit Snapshot Dish', 120.50, TRUE) RETURNING menu_id"
+            ).executeQuery();
+            menuResult.next();
+            testMenuIdentifier = menuResult.getInt("menu_id");
+
+            ResultSet orderResult = conn.prepareStatement(
+                    "INSERT INTO orders (status) VALUES ('PENDING') RETURNING order_id"
+            ).executeQuery();
+            orderResult.next();
+            testOrderIdentifier = orderResult.getInt("order_id");
+        } catch (Exception e) {
+            throw new RuntimeException("Test setup failed: " + e.getMessage(), e);
+        }
+    }
+
+    @AfterAll
+    void cleanupAll() {
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            conn.prepareStatement("DELETE FROM orders WHERE order_id = " + testOrderIdentifier).executeUpdate();
+            conn.prepareStatement("DELETE FROM menu WHERE menu_id = " + testMenuIdentifier).executeUpdate();
+        } catch (Exception e) {
+            System.err.println("Cleanup failed: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void orderedItemKeepsItsPriceAfterMenuChange() {
+        assertTrue(orderItemDataAccessObjectForTesting.addItemToOrder(testOrderIdentifier, testMenuIdentifier, 2));
+        assertTrue(new MenuDAO().updatePrice(testMenuIdentifier, 99900));
+
+        List<OrderItem> orderItems = orderItemDataAccessObjectForTesting.getItemsByOrder(testOrderIdentifier);
+        assertEquals(1, orderItems.size());
+        assertEquals("JUnit Snapshot Dish", orderItems.get(0).getItemName());
+        assertEquals(12050, orderItems.get(0).getPricePaise());
+    }
+
+    @Test
+    void unknownDishIsNotAdded() {
+        assertFalse(orderItemDataAccessObjectForTesting.addItemToOrder(testOrderIdentifier, -1, 1));
+    }
+}
@@ -0,0 +1,110 @@
+package com.restaurant.dao;
+
+import com.restaurant.config.DatabaseConnection;
+import com.restaurant.model.Reservation;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.List;
+
+import static java.time.temporal.ChronoUnit.HOURS;
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservationDAOTest {
+
+    private ReservationDAO reservationDataAccessObjectForTesting;
+    private int testUserIdentifier;
+    private int testCustomerIdentifier;
+    private int testTableIdentifier;
+
+    @BeforeAll
+    void setupAll() {
+        reservationDataAccessObjectForTesting = new ReservationDAO();
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            ResultSet userResult = conn.prepareStatement(
+                    "INSERT INTO users (username, password, role) VALUES ('reservationuser', 'testpass', 'CUSTOMER') RETURNING user_id"
+            ).executeQuery();
+            userResult.next();
+            testUserIdentifier = userResult.getInt("user_id");
+
+            ResultSet customerResult = conn.prepareStatement(
+                    "INSERT INTO customers (user_id, name) VALUES (" + testUserIdentifier + ", 'JUnit Guest') RETURNING customer_id"
+            ).executeQuery();
+            customerResult.next();
+            testCustomerIdentifier = customerResult.getInt("customer_id");
+
+            ResultSet tableResult = conn.prepareStatement(
+                    "INSERT INTO tables (capacity, is_booked) VALUES (6, FALSE) RETURNING table_id"
+            ).executeQuery();
+            tableResult.next();
+            testTableIdentifier = tableResult.getInt("table_id");
+        } catch (Exception e) {
+            throw new RuntimeException("Test setup failed: " + e.getMessage(), e);
+        }
+    }
+
+    @AfterAll
+    void cleanupAll() {
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            conn.prepareStatement("DELETE FROM tables WHERE table_id = " + testTableIdentifier).executeUpdate();
+            conn.prepareStatement("DELETE FROM customers WHERE customer_id = " + testCustomerIdentifier).executeUpdate();
+            conn.prepareStatement("DELETE FROM users WHERE user_id = " + testUserIdentifier).executeUpdate();
+        } catch (Exception e) {
+            System.err.println("Cleanup failed: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void slotTimesComeBackAsTheSameInstant() {
+        Instant startsAt = Instant.now().plus(3, HOURS).truncatedTo(SECONDS);
+        Reservation reservation = new Reservation(0, testCustomerIdentifier, testTableIdentifier, 4,
+                startsAt, startsAt.plus(90, MINUTES), "BOOKED");
+
+        assertNotEquals(-1, reservationDataAccessObjectForTesting.createReservation(reservation));
+
+        Reservation saved = reservationDataAccessObjectForTesting.getUpcomingReservations(testCustomerIdentifier).stream()
+                .filter(upcoming -> upcoming.getReservationId() == reservation.getReservationId())
+                .findFirst().orElseThrow();
+        assertEquals(startsAt, saved.getStartsAt());
+        assertEquals(startsAt.plus(90, MINUTES), saved.getEndsAt());
+    }
+
+    @Test
+    void reservationWithoutGuestsExpiresAfterNoShowWindow() throws Exception {
+        int overdueReservationId;
+        int upcomingReservationId;
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            ResultSet overdue = conn.prepareStatement(
+                    "INSERT INTO reservations (customer_id, table_id, party_size, starts_at, ends_at) VALUES (" +
+                            testCustomerIdentifier + ", " + testTableIdentifier + ", 2, NOW() - INTERVAL '30 minutes', NOW() + INTERVAL '60 minutes') " +
+                            "RETURNING reservation_id"
+            ).executeQuery();
+            overdue.next();
+            overdueReservationId = overdue.getInt("reservation_id");
+
+            ResultSet upcoming = conn.prepareStatement(
+                    "INSERT INTO reservations (customer_id, table_id, party_size, starts_at, ends_at) VALUES (" +
+                            testCustomerIdentifier + ", " + testTableIdentifier + ", 2, NOW() + INTERVAL '1 day', NOW() + INTERVAL '1 day 90 minutes') " +
+                            "RETURNING reservation_id"
+            ).executeQuery();
+            upcoming.next();
+            upcomingReservationId = upcoming.getInt("reservation_id");
+        }
+
+        List<Integer> expiredIds = reservationDataAccessObjectForTesting.expireNoShowReservations(20, 500).stream()
+                .map(Reservation::getReservationId).toList();
+
+        assertTrue(expiredIds.contains(overdueReservationId));
+        assertFalse(expiredIds.contains(upcomingReservationId));
+        try (Connection conn = DatabaseConnection.fetchConnection();
+             ResultSet rs = conn.prepareStatement("SELECT status FROM reservations WHERE reservation_id = " + overdueReservationId).executeQuery()) {
+            rs.next();
+            assertEquals("NO_SHOW", rs.getString("status"));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.restaurant.dao;
+
+import com.restaurant.config.DatabaseConnection;
+import com.restaurant.model.Table;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TableDAOTest {
+
+    private static final int TEST_CAPACITY = 90;
+    private static final int TEST_TABLE_COUNT = 20;
+
+    private TableDAO tableDataAccessObjectForTesting;
+
+    @BeforeAll
+    void setupAll() {
+        tableDataAccessObjectForTesting = new TableDAO();
+    }
+
+    @BeforeEach
+    void setup() {
+        try (Connection conn = DatabaseConnection.fetchConnection();
+             PreparedStatement ps = conn.prepareStatement("INSERT INTO tables (capacity, is_booked) VALUES (?, FALSE)")) {
+            for (int i = 0; i < TEST_TABLE_COUNT; i++) {
+                ps.setInt(1, i == 0 ? TEST_CAPACITY : TEST_CAPACITY + 1);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (Exception e) {
+            throw new RuntimeException("Test setup failed: " + e.getMessage(), e);
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            conn.prepareStatement("DELETE FROM tables WHERE capacity >= " + TEST_CAPACITY).executeUpdate();
+        } catch (Exception e) {
+            throw new RuntimeException("Test cleanup failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Test
+    void claimPicksSmallestFittingTable() {
+        Table claimedTable = tableDataAccessObjectForTesting.claimAvailableTable(TEST_CAPACITY);
+        assertNotNull(claimedTable);
+        assertEquals(TEST_CAPACITY, claimedTable.getCapacity());
+        assertTrue(claimedTable.isBooked());
+    }
+
+    @Test
+    void releaseExpiredBookingsFreesOnlyOverdueTables() throws Exception {
+        int overdueTableId;
+        int freshTableId;
+        int userId;
+        int noShowCustomerId;
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            ResultSet overdue = conn.prepareStatement(
+                    "INSERT INTO tables (capacity, is_booked, booking_time) VALUES (" + TEST_CAPACITY + ", TRUE, NOW() - INTERVAL '30 minutes') RETURNING table_id"
+            ).executeQuery();
+            overdue.next();
+            overdueTableId = overdue.getInt("table_id");
+
+            // a no-show who ordered before walking off, so the table has an open tab
+            ResultSet user = conn.prepareStatement(
+                    "INSERT INTO users (username, password, role) VALUES ('noshowdiner', 'pass', 'CUSTOMER') RETURNING user_id"
+            ).executeQuery();
+            user.next();
+            userId = user.getInt("user_id");
+            ResultSet customer = conn.prepareStatement(
+                    "INSERT INTO customers (user_id, name, table_id) VALUES (" + userId + ", 'No Show', " + overdueTableId + ") RETURNING customer_id"
+            ).executeQuery();
+            customer.next();
+            noShowCustomerId = customer.getInt("customer_id");
+            conn.prepareStatement(
+                    "INSERT INTO tabs (customer_id, table_id, total_amount) VALUES (" + noShowCustomerId + ", " + overdueTableId + ", 150.00)"
+            ).executeUpdate();
+
+            ResultSet fresh = conn.prepareStatement(
+                    "INSERT INTO tables (capacity, is_booked, booking_time) VALUES (" + TEST_CAPACITY + ", TRUE, NOW()) RETURNING table_id"
+            ).executeQuery();
+            fresh.next();
+            freshTableId = fresh.getInt("table_id");
+        }
+
+        Map<Integer, List<Integer>> releasedCustomersByTable = tableDataAccessObjectForTesting.releaseExpiredBookings(20, 500);
+
+        try {
+            assertTrue(releasedCustomersByTable.containsKey(overdueTableId));
+            assertFalse(releasedCustomersByTable.containsKey(freshTableId));
+            assertEquals(List.of(noShowCustomerId), releasedCustomersByTable.get(overdueTableId));
+            assertEquals(0, new TabDAO().getOpenTabTotalPaise(noShowCustomerId, overdueTableId));
+        } finally {
+            try (Connection conn = DatabaseConnection.fetchConnection()) {
+                conn.prepareStatement("DELETE FROM customers WHERE customer_id = " + noShowCustomerId).executeUpdate();
+                conn.prepareStatement("DELETE FROM users WHERE user_id = " + userId).executeUpdate();
+            }
+        }
+    }
+
+    @Test
+    void concurrentClaimsNeverShareTable() throws Exception {
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<List<Integer>>> results = new ArrayList<>();
+
+        for (int i = 0; i < threadCount; i++) {
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                List<Integer> claimedIds = new ArrayList<>();
+                Table claimedTable;
+                while ((claimedTable = tableDataAccessObjectForTesting.claimAvailableTable(TEST_CAPACITY)) != null) {
+                    claimedIds.add(claimedTable.getTableId());
+                }
+                return claimedIds;
+            }));
+        }
+        startSignal.countDown();
+
+        Set<Integer> distinctIds = new HashSet<>();
+        int totalClaims = 0;
+        for (Future<List<Integer>> result : results) {
+            List<Integer> claimedIds = result.get(30, TimeUnit.SECONDS);
+            totalClaims += claimedIds.size();
+            distinctIds.addAll(claimedIds);
+        }
+        executor.shutdown();
+
+        assertEquals(totalClaims, distinctIds.size());
+        assertTrue(distinctIds.size() >= TEST_TABLE_COUNT);
+    }
+}
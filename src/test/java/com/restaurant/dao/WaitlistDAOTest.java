@@ -0,0 +1,96 @@
+package com.restaurant.dao;
+
+import com.restaurant.config.DatabaseConnection;
+import com.restaurant.model.WaitingParty;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class WaitlistDAOTest {
+
+    private WaitlistDAO waitlistDataAccessObjectForTesting;
+    private int testUserIdentifier;
+    private int testCustomerIdentifier;
+
+    @BeforeAll
+    void setupAll() {
+        waitlistDataAccessObjectForTesting = new WaitlistDAO();
+    }
+
+    @BeforeEach
+    void setup() {
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            PreparedStatement userInsert = conn.prepareStatement(
+                    "INSERT INTO users (username, password, role) VALUES ('waitlistuser', 'testpass', 'CUSTOMER') RETURNING user_id"
+            );
+            ResultSet userResult = userInsert.executeQuery();
+            userResult.next();
+            testUserIdentifier = userResult.getInt("user_id");
+
+            PreparedStatement customerInsert = conn.prepareStatement(
+                    "INSERT INTO customers (user_id, name) VALUES (?, 'JUnit Waiting Customer') RETURNING customer_id"
+            );
+            customerInsert.setInt(1, testUserIdentifier);
+            ResultSet customerResult = customerInsert.executeQuery();
+            customerResult.next();
+            testCustomerIdentifier = customerResult.getInt("customer_id");
+        } catch (Exception e) {
+            throw new RuntimeException("Test setup failed: " + e.getMessage(), e);
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            PreparedStatement customerDelete = conn.prepareStatement("DELETE FROM customers WHERE user_id = ?");
+            customerDelete.setInt(1, testUserIdentifier);
+            customerDelete.executeUpdate();
+
+            PreparedStatement userDelete = conn.prepareStatement("DELETE FROM users WHERE user_id = ?");
+            userDelete.setInt(1, testUserIdentifier);
+            userDelete.executeUpdate();
+        } catch (Exception e) {
+            System.err.println("Cleanup failed: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void enqueuedPartyIsReadBack() {
+        assertTrue(waitlistDataAccessObjectForTesting.enqueue(testCustomerIdentifier, 4));
+
+        WaitingParty party = findTestParty(waitlistDataAccessObjectForTesting.getAllWaiting());
+        assertNotNull(party);
+        assertEquals(4, party.getSeats());
+        assertEquals("JUnit Waiting Customer", party.getCustomer().getName());
+    }
+
+    @Test
+    void customerIsQueuedOnlyOnce() {
+        assertTrue(waitlistDataAccessObjectForTesting.enqueue(testCustomerIdentifier, 2));
+        assertFalse(waitlistDataAccessObjectForTesting.enqueue(testCustomerIdentifier, 6));
+        assertEquals(2, findTestParty(waitlistDataAccessObjectForTesting.getAllWaiting()).getSeats());
+    }
+
+    @Test
+    void removedPartyIsGone() {
+        waitlistDataAccessObjectForTesting.enqueue(testCustomerIdentifier, 2);
+
+        assertEquals(1, waitlistDataAccessObjectForTesting.removeAll(List.of(testCustomerIdentifier)));
+        assertNull(findTestParty(waitlistDataAccessObjectForTesting.getAllWaiting()));
+    }
+
+    private WaitingParty findTestParty(List<WaitingParty> parties) {
+        for (WaitingParty party : parties) {
+            if (party.getCustomer().getCustomerId() == testCustomerIdentifier) {
+                return party;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.restaurant.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatusTest {
+
+    @Test
+    void ordersMoveOneStepForward() {
+        assertTrue(OrderStatus.PENDING.canMoveTo(OrderStatus.READY));
+        assertTrue(OrderStatus.READY.canMoveTo(OrderStatus.SERVED));
+        assertTrue(OrderStatus.SERVED.canMoveTo(OrderStatus.COMPLETED));
+
+        assertFalse(OrderStatus.PENDING.canMoveTo(OrderStatus.SERVED));
+        assertFalse(OrderStatus.READY.canMoveTo(OrderStatus.PENDING));
+        assertFalse(OrderStatus.COMPLETED.canMoveTo(OrderStatus.COMPLETED));
+        assertArrayEquals(new String[]{"READY"}, OrderStatus.SERVED.previousNames());
+        assertEquals(0, OrderStatus.PENDING.previousNames().length);
+    }
+
+    @Test
+    void itemsCanSkipCooking() {
+        assertTrue(ItemStatus.PENDING.canMoveTo(ItemStatus.COOKING));
+        assertTrue(ItemStatus.PENDING.canMoveTo(ItemStatus.READY));
+        assertTrue(ItemStatus.COOKING.canMoveTo(ItemStatus.READY));
+
+        assertFalse(ItemStatus.PENDING.canMoveTo(ItemStatus.SERVED));
+        assertFalse(ItemStatus.SERVED.canMoveTo(ItemStatus.READY));
+        assertArrayEquals(new String[]{"PENDING", "COOKING"}, ItemStatus.READY.previousNames());
+    }
+}
@@ -85,7 +85,7 @@ class AdminServiceTest {
 
     @Test
     void addMenuDish() {
-        boolean dishAdditionResult = adminServiceInstanceForTesting.addMenuDish("Extra JUnit Dish", 150.0);
+        boolean dishAdditionResult = adminServiceInstanceForTesting.addMenuDish("Extra JUnit Dish", 15000);
         assertTrue(dishAdditionResult);
 
         try (Connection databaseConnectionForExtraCleanup = DatabaseConnection.fetchConnection()) {
@@ -97,7 +97,7 @@ class AdminServiceTest {
 
     @Test
     void changeDishPrice() {
-        boolean priceUpdateResult = adminServiceInstanceForTesting.changeDishPrice(testMenuItemIdentifier, 199.0);
+        boolean priceUpdateResult = adminServiceInstanceForTesting.changeDishPrice(testMenuItemIdentifier, 19900);
         assertTrue(priceUpdateResult, "Dish price should be updated");
 
         try (Connection databaseConnectionForVerification = DatabaseConnection.fetchConnection()) {
@@ -0,0 +1,142 @@
+package com.restaurant.service;
+
+import com.restaurant.config.DatabaseConnection;
+import com.restaurant.dao.OrderItemDAO;
+import com.restaurant.model.Order;
+import com.restaurant.model.OrderItem;
+import com.restaurant.model.OrderLine;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChefServiceTest {
+
+    private static ChefService chefService;
+
+    private static int customerUserId;
+    private static int customerId;
+    private static int tableId;
+    private static int orderWithItemsId;
+    private static int emptyOrderId;
+
+    @BeforeAll
+    static void setup() {
+        chefService = new ChefService();
+
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            PreparedStatement ps1 = conn.prepareStatement(
+                    "INSERT INTO users (username, password, role) VALUES ('test_kitchen_customer', 'pass', 'CUSTOMER') RETURNING user_id"
+            );
+            ResultSet rs1 = ps1.executeQuery();
+            if (rs1.next()) customerUserId = rs1.getInt("user_id");
+
+            PreparedStatement ps2 = conn.prepareStatement(
+                    "INSERT INTO customers (user_id, name) VALUES (?, 'Kitchen Customer') RETURNING customer_id"
+            );
+            ps2.setInt(1, customerUserId);
+            ResultSet rs2 = ps2.executeQuery();
+            if (rs2.next()) customerId = rs2.getInt("customer_id");
+
+            PreparedStatement ps3 = conn.prepareStatement(
+                    "INSERT INTO tables (capacity, is_booked) VALUES (4, TRUE) RETURNING table_id"
+            );
+            ResultSet rs3 = ps3.executeQuery();
+            if (rs3.next()) tableId = rs3.getInt("table_id");
+
+            orderWithItemsId = insertPendingOrder(conn);
+            emptyOrderId = insertPendingOrder(conn);
+
+            PreparedStatement ps4 = conn.prepareStatement(
+                    "INSERT INTO order_items (order_id, menu_id, quantity, status, item_name, unit_price) " +
+                            "SELECT ?, menu_id, CASE menu_id WHEN 1 THEN 2 ELSE 1 END, 'PENDING', item_name, price FROM menu WHERE menu_id IN (1, 2)"
+            );
+            ps4.setInt(1, orderWithItemsId);
+            ps4.executeUpdate();
+
+        } catch (Exception e) {
+            throw new RuntimeException("Test setup failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static int insertPendingOrder(Connection conn) throws Exception {
+        PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO orders (customer_id, table_id, status) VALUES (?, ?, 'PENDING') RETURNING order_id"
+        );
+        ps.setInt(1, customerId);
+        ps.setInt(2, tableId);
+        ResultSet rs = ps.executeQuery();
+        rs.next();
+        return rs.getInt("order_id");
+    }
+
+    @AfterAll
+    static void cleanup() {
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            conn.prepareStatement("DELETE FROM orders WHERE customer_id = " + customerId).executeUpdate();
+            conn.prepareStatement("DELETE FROM tables WHERE table_id = " + tableId).executeUpdate();
+            conn.prepareStatement("DELETE FROM customers WHERE customer_id = " + customerId).executeUpdate();
+            conn.prepareStatement("DELETE FROM users WHERE user_id = " + customerUserId).executeUpdate();
+        } catch (Exception e) {
+            throw new RuntimeException("Test cleanup failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Test
+    void pendingOrdersComeWithTheirItems() {
+        List<Order> pendingOrders = chefService.getPendingOrdersWithItems();
+
+        Order orderWithItems = findOrder(pendingOrders, orderWithItemsId);
+        assertNotNull(orderWithItems);
+        assertEquals(2, orderWithItems.getItems().size());
+        assertNotNull(orderWithItems.getItems().get(0).getItemName());
+
+        Order emptyOrder = findOrder(pendingOrders, emptyOrderId);
+        assertNotNull(emptyOrder);
+        assertTrue(emptyOrder.getItems().isEmpty());
+    }
+
+    @Test
+    void orderIsMarkedReadyOnlyOnce() throws Exception {
+        int orderId;
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            orderId = insertPendingOrder(conn);
+        }
+
+        assertTrue(chefService.markOrderReady(orderId));
+        assertFalse(chefService.markOrderReady(orderId));
+    }
+
+    @Test
+    void orderBecomesReadyWhenLastItemIsCooked() throws Exception {
+        int orderId;
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            orderId = insertPendingOrder(conn);
+        }
+        assertTrue(new OrderItemDAO().addItemsToOrder(orderId, List.of(new OrderLine(1, 1), new OrderLine(2, 1))));
+        assertEquals(2, chefService.getItemsRemaining(orderId));
+
+        List<OrderItem> items = chefService.getItemsForOrder(orderId);
+        assertTrue(chefService.markOrderItemCompleted(items.get(0).getItemId()));
+        assertFalse(chefService.markOrderItemCompleted(items.get(0).getItemId()));
+        assertEquals(1, chefService.getItemsRemaining(orderId));
+        assertNotNull(findOrder(chefService.getPendingOrders(), orderId));
+
+        assertTrue(chefService.markOrderItemCompleted(items.get(1).getItemId()));
+        assertEquals(0, chefService.getItemsRemaining(orderId));
+        assertNull(findOrder(chefService.getPendingOrders(), orderId));
+    }
+
+    private static Order findOrder(List<Order> orders, int orderId) {
+        for (Order order : orders) {
+            if (order.getOrderId() == orderId) {
+                return order;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.restaurant.service;
+
+import com.restaurant.config.DatabaseConnection;
+import com.restaurant.dao.OrderDAO;
+import com.restaurant.model.Customer;
+import com.restaurant.model.OrderLine;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerServiceTest {
+
+    private static CustomerService customerService;
+
+    private static int waiterUserId;
+    private static int customerUserId;
+    private static int customerId;
+    private static int tableId;
+
+    @BeforeAll
+    static void setup() {
+        customerService = new CustomerService();
+
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            PreparedStatement ps1 = conn.prepareStatement(
+                    "INSERT INTO users (username, password, role) VALUES ('test_retry_waiter', 'pass', 'WAITER') RETURNING user_id"
+            );
+            ResultSet rs1 = ps1.executeQuery();
+            if (rs1.next()) waiterUserId = rs1.getInt("user_id");
+
+            PreparedStatement ps2 = conn.prepareStatement(
+                    "INSERT INTO staff (user_id, name, role) VALUES (?, 'Retry Waiter', 'WAITER')"
+            );
+            ps2.setInt(1, waiterUserId);
+            ps2.executeUpdate();
+
+            PreparedStatement ps3 = conn.prepareStatement(
+                    "INSERT INTO users (username, password, role) VALUES ('test_retry_customer', 'pass', 'CUSTOMER') RETURNING user_id"
+            );
+            ResultSet rs3 = ps3.executeQuery();
+            if (rs3.next()) customerUserId = rs3.getInt("user_id");
+
+            PreparedStatement ps4 = conn.prepareStatement(
+                    "INSERT INTO customers (user_id, name) VALUES (?, 'Retry Customer') RETURNING customer_id"
+            );
+            ps4.setInt(1, customerUserId);
+            ResultSet rs4 = ps4.executeQuery();
+            if (rs4.next()) customerId = rs4.getInt("customer_id");
+
+            PreparedStatement ps5 = conn.prepareStatement(
+                    "INSERT INTO tables (capacity, is_booked) VALUES (2, TRUE) RETURNING table_id"
+            );
+            ResultSet rs5 = ps5.executeQuery();
+            if (rs5.next()) tableId = rs5.getInt("table_id");
+
+            PreparedStatement ps6 = conn.prepareStatement(
+                    "UPDATE customers SET table_id = ? WHERE customer_id = ?"
+            );
+            ps6.setInt(1, tableId);
+            ps6.setInt(2, customerId);
+            ps6.executeUpdate();
+        } catch (Exception e) {
+            throw new RuntimeException("Test setup failed: " + e.getMessage(), e);
+        }
+
+        // make sure the waiter added above can be assigned
+        new OrderDAO().resyncWaiterLoad();
+    }
+
+    @AfterAll
+    static void cleanup() {
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            conn.prepareStatement("DELETE FROM orders WHERE customer_id = " + customerId).executeUpdate();
+            conn.prepareStatement("DELETE FROM tables WHERE table_id = " + tableId).executeUpdate();
+            conn.prepareStatement("DELETE FROM customers WHERE customer_id = " + customerId).executeUpdate();
+            conn.prepareStatement("DELETE FROM users WHERE user_id IN (" + waiterUserId + ", " + customerUserId + ")").executeUpdate();
+        } catch (Exception e) {
+            throw new RuntimeException("Test cleanup failed: " + e.getMessage(), e);
+        }
+        new OrderDAO().resyncWaiterLoad();
+    }
+
+    @Test
+    void retriedOrderIsPlacedOnce() throws Exception {
+        Customer customer = new Customer(customerId, customerUserId, "Retry Customer");
+        customer.setTableId(tableId);
+        List<OrderLine> cart = List.of(new OrderLine(1, 2), new OrderLine(2, 1));
+        String idempotencyKey = "test-order-" + customerId;
+
+        int firstOrderId = customerService.placeOrder(customer, cart, idempotencyKey);
+        long totalAfterFirst = customerService.getCurrentTotal(customer);
+        int retriedOrderId = customerService.placeOrder(customer, cart, idempotencyKey);
+
+        assertEquals(firstOrderId, retriedOrderId);
+        assertTrue(totalAfterFirst > 0);
+        assertEquals(totalAfterFirst, customerService.getCurrentTotal(customer));
+        try (Connection conn = DatabaseConnection.fetchConnection();
+             ResultSet rs = conn.prepareStatement("SELECT COUNT(*) FROM order_items WHERE order_id = " + firstOrderId).executeQuery()) {
+            rs.next();
+            assertEquals(cart.size(), rs.getInt(1));
+        }
+    }
+}
@@ -65,13 +65,14 @@ class ManagerServiceTest {
 
             // Add order item
             PreparedStatement ps5 = conn.prepareStatement(
-                    "INSERT INTO order_items (order_id, menu_id, quantity, status) VALUES (?, 1, 2, 'PENDING')"
+                    "INSERT INTO order_items (order_id, menu_id, quantity, status, item_name, unit_price) " +
+                            "SELECT ?, menu_id, 2, 'PENDING', item_name, price FROM menu WHERE menu_id = 1"
             );
             ps5.setInt(1, orderId);
             ps5.executeUpdate();
 
             // Simulate chef workflow: COMPLETED
-            conn.prepareStatement("UPDATE order_items SET status = 'COMPLETED' WHERE order_id = " + orderId).executeUpdate();
+            conn.prepareStatement("UPDATE order_items SET status = 'READY' WHERE order_id = " + orderId).executeUpdate();
             conn.prepareStatement("UPDATE orders SET status = 'READY' WHERE order_id = " + orderId).executeUpdate();
             conn.prepareStatement("UPDATE orders SET status = 'SERVED' WHERE order_id = " + orderId).executeUpdate();
 
@@ -83,9 +84,10 @@ class ManagerServiceTest {
     @AfterAll
     void cleanup() {
         try (Connection conn = DatabaseConnection.fetchConnection()) {
-            conn.prepareStatement("DELETE FROM bills WHERE order_id = " + orderId).executeUpdate();
-            conn.prepareStatement("DELETE FROM order_items WHERE order_id = " + orderId).executeUpdate();
-            conn.prepareStatement("DELETE FROM orders WHERE order_id = " + orderId).executeUpdate();
+            String customerOrders = "(SELECT order_id FROM orders WHERE customer_id = " + customerId + ")";
+            conn.prepareStatement("DELETE FROM bills WHERE order_id IN " + customerOrders).executeUpdate();
+            conn.prepareStatement("DELETE FROM order_items WHERE order_id IN " + customerOrders).executeUpdate();
+            conn.prepareStatement("DELETE FROM orders WHERE customer_id = " + customerId).executeUpdate();
             conn.prepareStatement("DELETE FROM tables WHERE table_id = " + tableId).executeUpdate();
             conn.prepareStatement("DELETE FROM customers WHERE customer_id = " + customerId).executeUpdate();
             conn.prepareStatement("DELETE FROM users WHERE username = 'test_manager_user'").executeUpdate();
@@ -97,14 +99,74 @@ class ManagerServiceTest {
 
     @Test
     void generateBill() {
-        billId = managerService.generateBill(orderId, 200.0);
+        billId = managerService.generateBill(orderId, 20000);
         assertTrue(billId > 0);
     }
 
     @Test
     void recordPayment() {
-        billId = managerService.generateBill(orderId, 200.0);
-        assertTrue(managerService.recordPayment(billId, "CASH", 200.0));
+        billId = managerService.generateBill(orderId, 20000);
+        assertTrue(managerService.recordPayment(billId, "CASH", 20000));
+    }
+
+    @Test
+    void retriedPaymentIsRecordedOnce() throws Exception {
+        int retriedBillId = managerService.generateBill(orderId, 15000);
+        String idempotencyKey = "test-payment-" + retriedBillId;
+
+        assertTrue(managerService.recordPayment(retriedBillId, "CARD", 15000, idempotencyKey));
+        assertTrue(managerService.recordPayment(retriedBillId, "CARD", 15000, idempotencyKey));
+
+        try (Connection conn = DatabaseConnection.fetchConnection();
+             ResultSet rs = conn.prepareStatement("SELECT COUNT(*) FROM payments WHERE bill_id = " + retriedBillId).executeQuery()) {
+            rs.next();
+            assertEquals(1, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void paymentSettlesTheBillOnce() throws Exception {
+        int settledBillId = managerService.generateBill(orderId, 20000);
+
+        assertTrue(managerService.recordPayment(settledBillId, "UPI", 20000));
+        assertFalse(managerService.recordPayment(settledBillId, "UPI", 20000));
+
+        try (Connection conn = DatabaseConnection.fetchConnection();
+             ResultSet rs = conn.prepareStatement("SELECT is_paid, (SELECT COUNT(*) FROM payments WHERE bill_id = " + settledBillId + ") AS payments, " +
+                     "(SELECT status FROM orders WHERE order_id = " + orderId + ") AS order_status " +
+                     "FROM bills WHERE bill_id = " + settledBillId).executeQuery()) {
+            rs.next();
+            assertTrue(rs.getBoolean("is_paid"));
+            assertEquals(1, rs.getInt("payments"));
+            assertEquals("COMPLETED", rs.getString("order_status"));
+        }
+    }
+
+    @Test
+    void billWithAnUnservedOrderIsNotSettled() throws Exception {
+        int pendingOrderId;
+        try (Connection conn = DatabaseConnection.fetchConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO orders (customer_id, table_id, status) VALUES (?, ?, 'PENDING') RETURNING order_id")) {
+            ps.setInt(1, customerId);
+            ps.setInt(2, tableId);
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            pendingOrderId = rs.getInt("order_id");
+        }
+        int unservedBillId = managerService.generateBill(pendingOrderId, 10000);
+
+        assertFalse(managerService.recordPayment(unservedBillId, "CASH", 10000));
+
+        try (Connection conn = DatabaseConnection.fetchConnection();
+             ResultSet rs = conn.prepareStatement("SELECT is_paid, (SELECT COUNT(*) FROM payments WHERE bill_id = " + unservedBillId + ") AS payments, " +
+                     "(SELECT status FROM orders WHERE order_id = " + pendingOrderId + ") AS order_status " +
+                     "FROM bills WHERE bill_id = " + unservedBillId).executeQuery()) {
+            rs.next();
+            assertFalse(rs.getBoolean("is_paid"));
+            assertEquals(0, rs.getInt("payments"));
+            assertEquals("PENDING", rs.getString("order_status"));
+        }
     }
 
     @Test
@@ -3,6 +3,7 @@ package com.restaurant.service;
 import com.restaurant.config.DatabaseConnection;
 import com.restaurant.model.Order;
 import com.restaurant.model.OrderItem;
+import com.restaurant.model.OrderStatus;
 import org.junit.jupiter.api.*;
 
 import java.sql.Connection;
@@ -77,7 +78,8 @@ class WaiterServiceTest {
 
             // 5. Insert order item
             PreparedStatement ps7 = conn.prepareStatement(
-                    "INSERT INTO order_items (order_id, menu_id, quantity, status) VALUES (?, 1, 2, 'READY') RETURNING item_id"
+                    "INSERT INTO order_items (order_id, menu_id, quantity, status, item_name, unit_price) " +
+                            "SELECT ?, menu_id, 2, 'READY', item_name, price FROM menu WHERE menu_id = 1 RETURNING item_id"
             );
             ps7.setInt(1, orderId);
             ResultSet rs7 = ps7.executeQuery();
@@ -116,4 +118,30 @@ class WaiterServiceTest {
         boolean updated = waiterService.markOrderAsServed(orderId);
         assertTrue(updated);
     }
+
+    @Test
+    void waiterOrdersArePagedWithoutGapsOrRepeats() throws Exception {
+        try (Connection conn = DatabaseConnection.fetchConnection()) {
+            PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO orders (customer_id, table_id, waiter_id, status) VALUES (?, ?, ?, 'PENDING')"
+            );
+            for (int i = 0; i < 3; i++) {
+                ps.setInt(1, customerId);
+                ps.setInt(2, tableId);
+                ps.setInt(3, waiterStaffId);
+                ps.executeUpdate();
+            }
+        }
+
+        List<Order> firstPage = waiterService.getOrdersForWaiter(waiterStaffId, null, 2);
+        List<Order> secondPage = waiterService.getOrdersForWaiter(waiterStaffId, firstPage.get(1), 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(1, secondPage.size());
+        assertTrue(secondPage.get(0).getOrderId() > firstPage.get(1).getOrderId());
+        for (Order order : secondPage) {
+            assertEquals(waiterStaffId, order.getWaiterId());
+            assertEquals(OrderStatus.PENDING, order.getStatus());
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package com.restaurant.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    @Test
+    void scopesDoNotMix() {
+        IdempotencyCache idempotencyCache = new IdempotencyCache(10);
+        idempotencyCache.remember("order", "key-1", 5);
+
+        assertEquals(5, idempotencyCache.get("order", "key-1"));
+        assertEquals(-1, idempotencyCache.get("bill", "key-1"));
+    }
+
+    @Test
+    void leastRecentlyUsedKeyIsDroppedFirst() {
+        IdempotencyCache idempotencyCache = new IdempotencyCache(2);
+        idempotencyCache.remember("order", "a", 1);
+        idempotencyCache.remember("order", "b", 2);
+        idempotencyCache.get("order", "a");
+
+        idempotencyCache.remember("order", "c", 3);
+
+        assertEquals(1, idempotencyCache.get("order", "a"));
+        assertEquals(-1, idempotencyCache.get("order", "b"));
+        assertEquals(3, idempotencyCache.get("order", "c"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.restaurant.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void parsesRupeesIntoPaise() {
+        assertEquals(12000, Money.parse("120"));
+        assertEquals(12050, Money.parse("120.5"));
+        assertEquals(12005, Money.parse("120.05"));
+        assertEquals(10, Money.parse("0.10"));
+    }
+
+    @Test
+    void rejectsWhatIsNotAnAmount() {
+        assertThrows(NumberFormatException.class, () -> Money.parse("-5"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1.999"));
+        assertThrows(NumberFormatException.class, () -> Money.parse(".50"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("abc"));
+    }
+
+    @Test
+    void formatsWithTwoDecimals() {
+        assertEquals("120.50", Money.format(12050));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-3.00", Money.format(-300));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("-92233720368547758.08", Money.format(Long.MIN_VALUE));
+        assertEquals("92233720368547758.07", Money.format(Long.MAX_VALUE));
+    }
+
+    @Test
+    void tenthsAddUpExactly() {
+        long total = 0;
+        for (int i = 0; i < 10; i++) {
+            total = Money.add(total, Money.parse("0.10"));
+        }
+        assertEquals(Money.parse("1"), total);
+    }
+
+    @Test
+    void overflowIsNotSilent() {
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+    }
+}
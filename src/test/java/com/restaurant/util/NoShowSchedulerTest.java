@@ -0,0 +1,70 @@
+package com.restaurant.util;
+
+import com.restaurant.model.Customer;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NoShowSchedulerTest {
+
+    private final NoShowScheduler scheduler = NoShowScheduler.getInstance();
+
+    @Test
+    void checkInCancelsPendingDeadline() {
+        Customer customer = new Customer(-101, -101, "No Show Test");
+        int pendingBefore = scheduler.getPendingCount();
+        long cancelledBefore = scheduler.getCancelledCount();
+
+        scheduler.register(customer, 1);
+        assertEquals(pendingBefore + 1, scheduler.getPendingCount());
+
+        assertTrue(scheduler.cancel(customer.getCustomerId()));
+        assertEquals(pendingBefore, scheduler.getPendingCount());
+        assertEquals(cancelledBefore + 1, scheduler.getCancelledCount());
+        assertFalse(scheduler.cancel(customer.getCustomerId()));
+    }
+
+    @Test
+    void rebookingReplacesOldDeadline() {
+        Customer customer = new Customer(-102, -102, "Rebook Test");
+        int pendingBefore = scheduler.getPendingCount();
+
+        scheduler.register(customer, 1);
+        scheduler.register(customer, 2);
+        assertEquals(pendingBefore + 1, scheduler.getPendingCount());
+
+        scheduler.cancel(customer.getCustomerId());
+    }
+
+    @Test
+    void releasedBookingDropsDeadlineAndUnlinksCustomer() {
+        Customer customer = new Customer(-103, -103, "Swept Test");
+        customer.setTableId(5);
+        int pendingBefore = scheduler.getPendingCount();
+
+        scheduler.register(customer, 5);
+        assertFalse(scheduler.released(customer.getCustomerId(), 4));
+        assertEquals(Integer.valueOf(5), customer.getTableId());
+
+        assertTrue(scheduler.released(customer.getCustomerId(), 5));
+        assertNull(customer.getTableId());
+        assertEquals(pendingBefore, scheduler.getPendingCount());
+        assertFalse(scheduler.cancel(customer.getCustomerId()));
+    }
+
+    @Test
+    void manyDeadlinesCanBePendingAtOnce() {
+        int pendingBefore = scheduler.getPendingCount();
+        int deadlineCount = 100_000;
+
+        for (int i = 0; i < deadlineCount; i++) {
+            scheduler.register(new Customer(-1_000_000 - i, -1, "Bulk"), 1);
+        }
+        assertEquals(pendingBefore + deadlineCount, scheduler.getPendingCount());
+
+        for (int i = 0; i < deadlineCount; i++) {
+            scheduler.cancel(-1_000_000 - i);
+        }
+        assertEquals(pendingBefore, scheduler.getPendingCount());
+    }
+}
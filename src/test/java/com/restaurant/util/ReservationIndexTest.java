@@ -0,0 +1,67 @@
+package com.restaurant.util;
+
+import com.restaurant.model.Reservation;
+import com.restaurant.model.Table;
+import org.junit.jupiter.api.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationIndexTest {
+
+    private static final Instant SEVEN_PM = LocalDateTime.of(2030, 5, 10, 19, 0).toInstant(ZoneOffset.UTC);
+
+    private ReservationIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new ReservationIndex(60, 90);
+        index.resync(
+                List.of(new Table(1, 2, false, null),
+                        new Table(2, 4, false, null),
+                        new Table(3, 4, false, null),
+                        new Table(4, 8, false, null)),
+                List.of(reservation(10, 2, SEVEN_PM, SEVEN_PM.plus(90, MINUTES))));
+    }
+
+    @Test
+    void slotIsBlockedOnlyWhileReservationRuns() {
+        assertFalse(index.isFree(2, SEVEN_PM.plus(30, MINUTES), SEVEN_PM.plus(60, MINUTES)));
+        assertFalse(index.isFree(2, SEVEN_PM.minus(30, MINUTES), SEVEN_PM.plus(1, MINUTES)));
+        assertTrue(index.isFree(2, SEVEN_PM.minus(90, MINUTES), SEVEN_PM));
+        assertTrue(index.isFree(2, SEVEN_PM.plus(90, MINUTES), SEVEN_PM.plus(180, MINUTES)));
+    }
+
+    @Test
+    void freeTableSearchSkipsReservedAndExcludedTables() {
+        assertEquals(3, index.findFreeTable(4, SEVEN_PM.plus(30, MINUTES), SEVEN_PM.plus(120, MINUTES), Set.of()).getTableId());
+        assertEquals(4, index.findFreeTable(4, SEVEN_PM, SEVEN_PM.plus(60, MINUTES), Set.of(3)).getTableId());
+        assertEquals(2, index.findFreeTable(3, SEVEN_PM.plus(90, MINUTES), SEVEN_PM.plus(150, MINUTES), Set.of()).getTableId());
+        assertNull(index.findFreeTable(9, SEVEN_PM, SEVEN_PM.plus(60, MINUTES), Set.of()));
+    }
+
+    @Test
+    void tableIsHeldFromWalkInsInsideWindow() {
+        assertEquals(Set.of(2), index.getTablesHeldAt(SEVEN_PM.minus(60, MINUTES)));
+        assertEquals(Set.of(), index.getTablesHeldAt(SEVEN_PM.minus(120, MINUTES)));
+    }
+
+    @Test
+    void removedReservationFreesSlot() {
+        index.remove(reservation(10, 2, SEVEN_PM, SEVEN_PM.plus(90, MINUTES)));
+        assertTrue(index.isFree(2, SEVEN_PM, SEVEN_PM.plus(60, MINUTES)));
+
+        index.add(reservation(11, 3, SEVEN_PM, SEVEN_PM.plus(60, MINUTES)));
+        assertFalse(index.isFree(3, SEVEN_PM.plus(59, MINUTES), SEVEN_PM.plus(70, MINUTES)));
+    }
+
+    private static Reservation reservation(int reservationId, int tableId, Instant startsAt, Instant endsAt) {
+        return new Reservation(reservationId, 1, tableId, 2, startsAt, endsAt, "BOOKED");
+    }
+}
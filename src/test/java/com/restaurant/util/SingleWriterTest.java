@@ -0,0 +1,84 @@
+package com.restaurant.util;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleWriterTest {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int REQUESTS_PER_THREAD = 2000;
+
+    @Test
+    void taskNeverRunsTwiceAtOnce() throws Exception {
+        AtomicInteger runningNow = new AtomicInteger();
+        AtomicInteger mostAtOnce = new AtomicInteger();
+        SingleWriter writer = new SingleWriter(() -> {
+            mostAtOnce.accumulateAndGet(runningNow.incrementAndGet(), Math::max);
+            Thread.yield();
+            runningNow.decrementAndGet();
+        });
+
+        runConcurrently(writer::request);
+
+        assertEquals(1, mostAtOnce.get());
+    }
+
+    @Test
+    void lastRequestIsAlwaysServed() throws Exception {
+        AtomicInteger published = new AtomicInteger();
+        AtomicInteger lastSeen = new AtomicInteger();
+        SingleWriter writer = new SingleWriter(() -> lastSeen.set(published.get()));
+
+        runConcurrently(() -> {
+            published.incrementAndGet();
+            writer.request();
+        });
+
+        assertEquals(THREAD_COUNT * REQUESTS_PER_THREAD, lastSeen.get());
+    }
+
+    @Test
+    void rerunAskedForDuringFailedRunStillHappens() {
+        AtomicInteger runs = new AtomicInteger();
+        SingleWriter[] writer = new SingleWriter[1];
+        writer[0] = new SingleWriter(() -> {
+            if (runs.incrementAndGet() == 1) {
+                writer[0].request();
+                throw new IllegalStateException("first run fails");
+            }
+        });
+
+        writer[0].request();
+
+        assertEquals(2, runs.get());
+    }
+
+    private void runConcurrently(Runnable request) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+                        request.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
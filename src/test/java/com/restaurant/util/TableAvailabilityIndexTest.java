@@ -0,0 +1,57 @@
+package com.restaurant.util;
+
+import com.restaurant.model.Table;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableAvailabilityIndexTest {
+
+    private TableAvailabilityIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new TableAvailabilityIndex();
+        index.resync(List.of(
+                new Table(1, 2, false, null),
+                new Table(2, 4, true, null),
+                new Table(3, 4, false, null),
+                new Table(4, 6, false, null),
+                new Table(5, 4, false, null)));
+    }
+
+    @Test
+    void bestFitIsSmallestFreeTableThatFits() {
+        assertEquals(1, index.peekBestFit(1).getTableId());
+        assertEquals(3, index.peekBestFit(3).getTableId());
+        assertEquals(4, index.peekBestFit(5).getTableId());
+        assertNull(index.peekBestFit(7));
+    }
+
+    @Test
+    void takenTablesAreNotHandedOutTwice() {
+        assertEquals(3, index.takeBestFit(4, Set.of()).getTableId());
+        assertEquals(5, index.takeBestFit(4, Set.of()).getTableId());
+        assertEquals(4, index.takeBestFit(4, Set.of()).getTableId());
+        assertNull(index.takeBestFit(4, Set.of()));
+    }
+
+    @Test
+    void excludedTablesAreSkipped() {
+        assertEquals(5, index.takeBestFit(3, Set.of(3)).getTableId());
+        assertEquals(3, index.peekBestFit(3).getTableId());
+    }
+
+    @Test
+    void freedTableIsFoundAgain() {
+        assertTrue(index.markBooked(1));
+        assertFalse(index.markBooked(1));
+        assertEquals(3, index.peekBestFit(2).getTableId());
+
+        index.markFree(1);
+        assertEquals(1, index.peekBestFit(2).getTableId());
+    }
+}
@@ -0,0 +1,89 @@
+package com.restaurant.util;
+
+import com.restaurant.model.Order;
+import com.restaurant.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaiterLoadBalancerTest {
+
+    @Test
+    void newTableGoesToLeastBusyWaiter() {
+        WaiterLoadBalancer waiterLoadBalancer = new WaiterLoadBalancer();
+        waiterLoadBalancer.resync(List.of(1, 2), List.of(
+                new Order(10, 100, 5, 1, OrderStatus.PENDING, "2024-01-01 12:00:00")));
+
+        assertEquals(2, waiterLoadBalancer.assignWaiter(6));
+        assertEquals(1, waiterLoadBalancer.assignWaiter(7));
+    }
+
+    @Test
+    void tableKeepsItsWaiter() {
+        WaiterLoadBalancer waiterLoadBalancer = new WaiterLoadBalancer();
+        waiterLoadBalancer.resync(List.of(1, 2), List.of());
+
+        int firstWaiter = waiterLoadBalancer.assignWaiter(3);
+        assertEquals(firstWaiter, waiterLoadBalancer.assignWaiter(3));
+
+        WaiterLoad load = waiterLoadBalancer.getLoad(firstWaiter);
+        assertEquals(2, load.getOpenOrders());
+        assertEquals(1, load.getOpenTables());
+        assertEquals(2, load.getAssignedOrders());
+    }
+
+    @Test
+    void servedOrdersFreeTheWaiter() {
+        WaiterLoadBalancer waiterLoadBalancer = new WaiterLoadBalancer();
+        waiterLoadBalancer.resync(List.of(1), List.of());
+
+        waiterLoadBalancer.assignWaiter(3);
+        waiterLoadBalancer.assignWaiter(3);
+        waiterLoadBalancer.orderClosed(1, 3);
+        assertEquals(1, waiterLoadBalancer.getLoad(1).getOpenTables());
+
+        waiterLoadBalancer.orderClosed(1, 3);
+        assertEquals(0, waiterLoadBalancer.getLoad(1).getOpenOrders());
+        assertEquals(0, waiterLoadBalancer.getLoad(1).getOpenTables());
+    }
+
+    @Test
+    void resyncKeepsAssignmentsNotCommittedYet() {
+        WaiterLoadBalancer waiterLoadBalancer = new WaiterLoadBalancer();
+        waiterLoadBalancer.resync(List.of(1), List.of());
+
+        waiterLoadBalancer.assignWaiter(3);
+        waiterLoadBalancer.resync(List.of(1), List.of());
+        assertEquals(1, waiterLoadBalancer.getLoad(1).getOpenOrders());
+
+        waiterLoadBalancer.assignmentDropped(1, 3);
+        assertEquals(0, waiterLoadBalancer.getLoad(1).getOpenOrders());
+        assertEquals(0, waiterLoadBalancer.getLoad(1).getOpenTables());
+    }
+
+    @Test
+    void committedAssignmentIsCountedOnceAfterResync() {
+        WaiterLoadBalancer waiterLoadBalancer = new WaiterLoadBalancer();
+        waiterLoadBalancer.resync(List.of(1), List.of());
+
+        waiterLoadBalancer.assignWaiter(3);
+        waiterLoadBalancer.assignmentSaved(1, 3);
+        waiterLoadBalancer.resync(List.of(1), List.of(
+                new Order(10, 100, 3, 1, OrderStatus.PENDING, "2024-01-01 12:00:00")));
+        assertEquals(1, waiterLoadBalancer.getLoad(1).getOpenOrders());
+
+        waiterLoadBalancer.assignmentDropped(1, 3);
+        assertEquals(1, waiterLoadBalancer.getLoad(1).getOpenOrders());
+    }
+
+    @Test
+    void noWaitersMeansNoAssignment() {
+        WaiterLoadBalancer waiterLoadBalancer = new WaiterLoadBalancer();
+        waiterLoadBalancer.resync(List.of(), List.of());
+
+        assertEquals(-1, waiterLoadBalancer.assignWaiter(1));
+        assertTrue(waiterLoadBalancer.getLoads().isEmpty());
+    }
+}
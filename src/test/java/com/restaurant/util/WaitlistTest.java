@@ -0,0 +1,112 @@
+package com.restaurant.util;
+
+import com.restaurant.model.Customer;
+import com.restaurant.model.Table;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitlistTest {
+
+    private static final long AGING_MILLIS = 15 * 60 * 1000;
+
+    private Waitlist waitlist;
+
+    @BeforeEach
+    void setup() {
+        waitlist = new Waitlist(AGING_MILLIS);
+    }
+
+    @Test
+    void bigPartyAtFrontDoesNotBlockSmallParty() {
+        waitlist.add(new Customer(1, 1, "Big Party"), 6, 0);
+        waitlist.add(new Customer(2, 2, "Couple"), 2, 1);
+
+        assertEquals(2, seatedAtSingleTable(2, 2));
+    }
+
+    @Test
+    void tableGoesToLargestPartyThatFits() {
+        waitlist.add(new Customer(1, 1, "Couple"), 2, 0);
+        waitlist.add(new Customer(2, 2, "Family"), 4, 1);
+        waitlist.add(new Customer(3, 3, "Team"), 8, 2);
+
+        assertEquals(2, seatedAtSingleTable(6, 3));
+    }
+
+    @Test
+    void samePartySizeIsServedInArrivalOrder() {
+        waitlist.add(new Customer(1, 1, "First"), 4, 0);
+        waitlist.add(new Customer(2, 2, "Second"), 4, 1);
+
+        assertEquals(1, seatedAtSingleTable(4, 2));
+        assertTrue(waitlist.remove(1));
+        assertEquals(2, seatedAtSingleTable(4, 3));
+    }
+
+    @Test
+    void agedPartyIsServedBeforeBetterFit() {
+        waitlist.add(new Customer(1, 1, "Long Wait Couple"), 2, 0);
+        waitlist.add(new Customer(2, 2, "Fresh Family"), 4, AGING_MILLIS);
+
+        assertEquals(1, seatedAtSingleTable(4, AGING_MILLIS + 1));
+    }
+
+    @Test
+    void noPartyFitsSmallTable() {
+        waitlist.add(new Customer(1, 1, "Family"), 4, 0);
+
+        assertTrue(waitlist.planSeating(List.of(new Table(10, 2, false, null)), 1).isEmpty());
+        assertEquals(1, waitlist.size());
+    }
+
+    private int seatedAtSingleTable(int tableCapacity, long nowMillis) {
+        List<Waitlist.Seating> plan = waitlist.planSeating(List.of(new Table(10, tableCapacity, false, null)), nowMillis);
+        assertEquals(1, plan.size());
+        return plan.get(0).getParty().getCustomer().getCustomerId();
+    }
+
+    @Test
+    void customerCannotWaitTwice() {
+        Customer customer = new Customer(1, 1, "Twice");
+        assertTrue(waitlist.add(customer, 2, 0));
+        assertFalse(waitlist.add(customer, 4, 1));
+        assertTrue(waitlist.remove(1));
+        assertTrue(waitlist.isEmpty());
+    }
+
+    @Test
+    void planSeatingSeatsMostGuests() {
+        waitlist.add(new Customer(1, 1, "Couple"), 2, 0);
+        waitlist.add(new Customer(2, 2, "Family"), 4, 1);
+        waitlist.add(new Customer(3, 3, "Trio"), 3, 2);
+        List<Table> vacantTables = List.of(
+                new Table(10, 4, false, null),
+                new Table(11, 2, false, null),
+                new Table(12, 3, false, null));
+
+        List<Waitlist.Seating> plan = waitlist.planSeating(vacantTables, 3);
+
+        assertEquals(3, plan.size());
+        int seatedGuests = 0;
+        for (Waitlist.Seating seating : plan) {
+            assertTrue(seating.getParty().getSeats() <= seating.getTable().getCapacity());
+            seatedGuests += seating.getParty().getSeats();
+        }
+        assertEquals(9, seatedGuests);
+        assertEquals(3, waitlist.size());
+    }
+
+    @Test
+    void planSeatingGivesEachTableOnce() {
+        waitlist.add(new Customer(1, 1, "First Couple"), 2, 0);
+        waitlist.add(new Customer(2, 2, "Second Couple"), 2, 1);
+
+        List<Waitlist.Seating> plan = waitlist.planSeating(List.of(new Table(10, 6, false, null)), 2);
+
+        assertEquals(1, plan.size());
+        assertEquals(1, plan.get(0).getParty().getCustomer().getCustomerId());
+    }
+}